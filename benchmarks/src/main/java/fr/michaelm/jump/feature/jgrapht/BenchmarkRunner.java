@@ -0,0 +1,30 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+/**
+ * Runs jump-jgrapht benchmarks with the GC profiler, which reports the
+ * allocation rate (gc.alloc.rate) and the memory allocated per operation
+ * (gc.alloc.rate.norm) of each benchmark.
+ * Usual JMH command line options can be used, for example
+ * <code>java -jar benchmarks.jar GraphFactory -p edges=100000</code>.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
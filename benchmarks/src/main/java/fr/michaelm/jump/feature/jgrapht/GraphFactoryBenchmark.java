@@ -0,0 +1,90 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of GraphFactory builders on synthetic line networks.
+ * This class belongs to the package of GraphFactory to access the protected
+ * Relation enum.
+ * The dim3 parameter belongs to the Lines3D state, so that it only multiplies
+ * the node/edge graph builders which use it.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class GraphFactoryBenchmark {
+
+    /**
+     * Planar line network.
+     */
+    @State(Scope.Benchmark)
+    public static class Lines {
+
+        @Param({"10000", "100000", "1000000", "10000000"})
+        public int edges;
+
+        @Param({"GRID", "RANDOM_PLANAR"})
+        public NetworkGenerator.Network network;
+
+        List<Feature> features;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            features = NetworkGenerator.create(network, edges, dim3());
+        }
+
+        boolean dim3() {
+            return false;
+        }
+    }
+
+    /**
+     * Line network with or without z.
+     */
+    @State(Scope.Benchmark)
+    public static class Lines3D extends Lines {
+
+        @Param({"false", "true"})
+        public boolean dim3;
+
+        @Override
+        boolean dim3() {
+            return dim3;
+        }
+    }
+
+    @Benchmark
+    public Graph<INode,FeatureAsEdge> createUndirectedGraph(Lines3D lines) {
+        return GraphFactory.createUndirectedGraph(lines.features, lines.dim3);
+    }
+
+    @Benchmark
+    public Graph<INode,FeatureAsEdge> createDirectedGraph(Lines3D lines) {
+        return GraphFactory.createDirectedGraph(lines.features, lines.dim3);
+    }
+
+    @Benchmark
+    public Graph<FeatureAsNode,Long> createIntersectsGraph(Lines lines) {
+        return GraphFactory.createGraph(lines.features, GraphFactory.Relation.INTERSECTS);
+    }
+
+    @Benchmark
+    public Graph<FeatureAsNode,Long> createTouchesGraph(Lines lines) {
+        return GraphFactory.createGraph(lines.features, GraphFactory.Relation.TOUCHES);
+    }
+
+    @Benchmark
+    public Graph<FeatureAsNode,Long> createIsWithinGraph(Lines lines) {
+        return GraphFactory.createGraph(lines.features, 0.5);
+    }
+
+}
@@ -0,0 +1,200 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.vividsolutions.jump.feature.Feature;
+import com.vividsolutions.jump.feature.FeatureDataset;
+import org.jgrapht.Graph;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of GraphUtil methods on synthetic line networks.
+ * GraphUtil methods build their graph, so graph construction is included in
+ * measures, except for methods taking a graph, which use the graph of the
+ * Graph state.
+ * The directed parameter belongs to the Directed state, so that strong
+ * connectivity methods, which always use a directed graph, run once per
+ * network.
+ * Async variants run on the calling thread with a no-op progress listener :
+ * compared to their synchronous counterpart, they measure the cost of the
+ * cancellation and progress checks.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class GraphUtilBenchmark {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private static final ProgressListener PROGRESS = (done, total) -> {};
+
+    /**
+     * Planar line network.
+     */
+    @State(Scope.Benchmark)
+    public static class Lines {
+
+        @Param({"10000", "100000", "1000000", "10000000"})
+        public int edges;
+
+        @Param({"GRID", "RANDOM_PLANAR"})
+        public NetworkGenerator.Network network;
+
+        List<Feature> features;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            features = NetworkGenerator.create(network, edges, false);
+        }
+    }
+
+    /**
+     * Planar line network, analysed as a directed or undirected graph.
+     */
+    @State(Scope.Benchmark)
+    public static class Directed extends Lines {
+
+        @Param({"false", "true"})
+        public boolean directed;
+    }
+
+    /**
+     * Graph built once from the line network.
+     */
+    @State(Scope.Benchmark)
+    public static class Built extends Directed {
+
+        Graph<INode,FeatureAsEdge> graph;
+
+        @Setup(Level.Trial)
+        public void build() {
+            graph = directed ?
+                    GraphFactory.createDirectedGraph(features, false) :
+                    GraphFactory.createUndirectedGraph(features, false);
+        }
+    }
+
+    @Benchmark
+    public boolean isGraphConnected(Directed lines) {
+        return GraphUtil.isGraphConnected(lines.features, lines.directed, false);
+    }
+
+    @Benchmark
+    public boolean isGraphConnectedAsync(Directed lines) {
+        return GraphUtil.isGraphConnectedAsync(lines.features, lines.directed, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+    @Benchmark
+    public List<Set<INode>> createConnectedNodeSets(Directed lines) {
+        return GraphUtil.createConnectedNodeSets(lines.features, lines.directed, false);
+    }
+
+    @Benchmark
+    public List<Set<INode>> createConnectedNodeSetsAsync(Directed lines) {
+        return GraphUtil.createConnectedNodeSetsAsync(lines.features, lines.directed, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+    @Benchmark
+    public long streamConnectedNodeSets(Directed lines) {
+        return GraphUtil.streamConnectedNodeSets(lines.features, lines.directed, false).count();
+    }
+
+    @Benchmark
+    public long streamConnectedNodeSetsOfGraph(Built lines) {
+        return GraphUtil.streamConnectedNodeSets(lines.graph).count();
+    }
+
+    @Benchmark
+    public List<Geometry> getVerticesOfDegree(Directed lines) {
+        return GraphUtil.getVertices(lines.features, 1, lines.directed, false);
+    }
+
+    @Benchmark
+    public List<Geometry> getVerticesOfDegreeRange(Directed lines) {
+        return GraphUtil.getVertices(lines.features, 3, 8, lines.directed, false);
+    }
+
+    @Benchmark
+    public List<Geometry> getVerticesAsync(Directed lines) {
+        return GraphUtil.getVerticesAsync(lines.features, 3, 8, lines.directed, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+    @Benchmark
+    public CoordinateSequence getVertexCoordinates(Directed lines) {
+        return GraphUtil.getVertexCoordinates(lines.features, 3, 8, lines.directed, false);
+    }
+
+    @Benchmark
+    public long streamVertices(Directed lines) {
+        return GraphUtil.streamVertices(lines.features, 3, 8, lines.directed, false).count();
+    }
+
+    @Benchmark
+    public long streamNodes(Directed lines) {
+        return GraphUtil.streamNodes(lines.features, 3, 8, lines.directed, false,
+                GraphUtil.createNodeSchema()).count();
+    }
+
+    @Benchmark
+    public long streamNodesOfGraph(Built lines) {
+        return GraphUtil.streamNodes(lines.graph, 3, 8, GraphUtil.createNodeSchema()).count();
+    }
+
+    @Benchmark
+    public int writeNodes(Directed lines) {
+        return GraphUtil.writeNodes(lines.features, 3, 8, lines.directed, false,
+                new FeatureDataset(GraphUtil.createNodeSchema()));
+    }
+
+    @Benchmark
+    public int writeNodesOfGraph(Built lines) {
+        return GraphUtil.writeNodes(lines.graph, 3, 8,
+                new FeatureDataset(GraphUtil.createNodeSchema()));
+    }
+
+    @Benchmark
+    public boolean isGraphStronglyConnected(Lines lines) {
+        return GraphUtil.isGraphStronglyConnected(lines.features, false);
+    }
+
+    @Benchmark
+    public boolean isGraphStronglyConnectedAsync(Lines lines) {
+        return GraphUtil.isGraphStronglyConnectedAsync(lines.features, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+    @Benchmark
+    public List<Set<INode>> createStronglyConnectedNodeSets(Lines lines) {
+        return GraphUtil.createStronglyConnectedNodeSets(lines.features, false);
+    }
+
+    @Benchmark
+    public List<Set<INode>> createStronglyConnectedNodeSetsAsync(Lines lines) {
+        return GraphUtil.createStronglyConnectedNodeSetsAsync(lines.features, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+    @Benchmark
+    public List<Feature> getSinkAndSourceComponents(Lines lines) {
+        return GraphUtil.getSinkAndSourceComponents(lines.features, false);
+    }
+
+    @Benchmark
+    public List<Feature> getSinkAndSourceComponentsAsync(Lines lines) {
+        return GraphUtil.getSinkAndSourceComponentsAsync(lines.features, false,
+                DIRECT, null, PROGRESS).join();
+    }
+
+}
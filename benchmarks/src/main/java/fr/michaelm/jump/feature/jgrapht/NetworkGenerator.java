@@ -0,0 +1,113 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.vividsolutions.jump.feature.AttributeType;
+import com.vividsolutions.jump.feature.BasicFeature;
+import com.vividsolutions.jump.feature.Feature;
+import com.vividsolutions.jump.feature.FeatureSchema;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.triangulate.DelaunayTriangulationBuilder;
+
+/**
+ * Generators of synthetic line networks used by benchmarks.
+ * Networks are made of 2-point LineString features and are deterministic for
+ * a given size.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class NetworkGenerator {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    static final FeatureSchema SCHEMA = new FeatureSchema();
+    static {
+        SCHEMA.addAttribute("geometry", AttributeType.GEOMETRY);
+    }
+
+    /**
+     * Network type.
+     */
+    public enum Network {
+        /**
+         * A regular square grid with unit edges.
+         */
+        GRID,
+        /**
+         * Edges of the Delaunay triangulation of random points.
+         */
+        RANDOM_PLANAR
+    }
+
+    /**
+     * Create a network of the given type with about edges features.
+     * @param network network type
+     * @param edges number of edges
+     * @param dim3 true to give a z to every node
+     */
+    public static List<Feature> create(Network network, int edges, boolean dim3) {
+        return network == Network.GRID ? grid(edges, dim3) : randomPlanar(edges, dim3);
+    }
+
+    /**
+     * Create a square grid network with edges features.
+     * @param edges number of edges
+     * @param dim3 true to give a z to every node
+     */
+    public static List<Feature> grid(int edges, boolean dim3) {
+        // a grid of s x s nodes has 2s(s-1) edges
+        int s = (int)Math.ceil((1 + Math.sqrt(1 + 2.0 * edges)) / 2);
+        List<Feature> features = new ArrayList<>(edges);
+        for (int i = 0 ; i < s && features.size() < edges ; i++) {
+            for (int j = 0 ; j < s && features.size() < edges ; j++) {
+                if (i + 1 < s) features.add(segment(node(i, j, dim3), node(i + 1, j, dim3)));
+                if (j + 1 < s && features.size() < edges) {
+                    features.add(segment(node(i, j, dim3), node(i, j + 1, dim3)));
+                }
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Create a planar network made of the edges of the Delaunay triangulation
+     * of random points (a triangulation of n points has about 3n edges).
+     * @param edges number of edges
+     * @param dim3 true to give a z to every node
+     */
+    public static List<Feature> randomPlanar(int edges, boolean dim3) {
+        Random random = new Random(edges);
+        int n = Math.max(3, edges / 3 + 2);
+        double size = Math.sqrt(n);
+        List<Coordinate> sites = new ArrayList<>(n);
+        for (int i = 0 ; i < n ; i++) {
+            sites.add(dim3 ?
+                    new Coordinate(random.nextDouble() * size, random.nextDouble() * size, random.nextInt(10)) :
+                    new Coordinate(random.nextDouble() * size, random.nextDouble() * size));
+        }
+        DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+        builder.setSites(sites);
+        Geometry lines = builder.getEdges(FACTORY);
+        List<Feature> features = new ArrayList<>(Math.min(edges, lines.getNumGeometries()));
+        for (int i = 0 ; i < lines.getNumGeometries() && features.size() < edges ; i++) {
+            Coordinate[] cc = lines.getGeometryN(i).getCoordinates();
+            features.add(segment(cc[0], cc[cc.length - 1]));
+        }
+        return features;
+    }
+
+    private static Coordinate node(int i, int j, boolean dim3) {
+        return dim3 ? new Coordinate(i, j, (i * 31 + j * 17) % 7) : new Coordinate(i, j);
+    }
+
+    private static Feature segment(Coordinate c0, Coordinate c1) {
+        Feature f = new BasicFeature(SCHEMA);
+        f.setGeometry(FACTORY.createLineString(new Coordinate[]{c0, c1}));
+        return f;
+    }
+
+}
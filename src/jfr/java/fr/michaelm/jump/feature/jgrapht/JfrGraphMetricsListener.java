@@ -0,0 +1,84 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * GraphMetricsListener committing a Java Flight Recorder event for each
+ * operation. Events are named fr.michaelm.jump.jgrapht.GraphOperation and are
+ * only committed while a recording enables them.
+ * <p>This class requires a JVM providing the jdk.jfr module (JDK 11+ or
+ * JDK 8u262+). It is kept out of the main sources and is only compiled by
+ * the jfr profile, so that the library still builds on older JDK 8.</p>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class JfrGraphMetricsListener implements GraphMetricsListener {
+
+    @Name("fr.michaelm.jump.jgrapht.GraphOperation")
+    @Label("Graph Operation")
+    @Category({"OpenJUMP", "jump-jgrapht"})
+    @Description("GraphFactory or GraphUtil operation")
+    static final class GraphOperationEvent extends jdk.jfr.Event {
+        @Label("Operation")
+        String operation;
+        @Label("Total Duration") @Timespan(Timespan.NANOSECONDS)
+        long totalDuration;
+        @Label("Geometry Access") @Timespan(Timespan.NANOSECONDS)
+        long geometryAccess;
+        @Label("Index Build") @Timespan(Timespan.NANOSECONDS)
+        long indexBuild;
+        @Label("Index Query") @Timespan(Timespan.NANOSECONDS)
+        long indexQuery;
+        @Label("Predicate") @Timespan(Timespan.NANOSECONDS)
+        long predicate;
+        @Label("Graph Insertion") @Timespan(Timespan.NANOSECONDS)
+        long graphInsertion;
+        @Label("Algorithm") @Timespan(Timespan.NANOSECONDS)
+        long algorithm;
+        @Label("Features")
+        long features;
+        @Label("Nodes")
+        long nodes;
+        @Label("Edges")
+        long edges;
+        @Label("Candidate Pairs")
+        long candidatePairs;
+        @Label("Predicate Hits")
+        long predicateHits;
+        @Label("Skipped Empty Geometries")
+        long skippedEmptyGeometries;
+        @Label("Estimated Heap") @DataAmount
+        long estimatedHeap;
+    }
+
+    @Override
+    public void operationCompleted(GraphOperationStats stats) {
+        GraphOperationEvent event = new GraphOperationEvent();
+        if (!event.shouldCommit()) return;
+        event.operation = stats.getOperation();
+        event.totalDuration = stats.getTotalNanos();
+        event.geometryAccess = stats.getPhaseNanos(Phase.GEOMETRY_ACCESS);
+        event.indexBuild = stats.getPhaseNanos(Phase.INDEX_BUILD);
+        event.indexQuery = stats.getPhaseNanos(Phase.INDEX_QUERY);
+        event.predicate = stats.getPhaseNanos(Phase.PREDICATE);
+        event.graphInsertion = stats.getPhaseNanos(Phase.GRAPH_INSERTION);
+        event.algorithm = stats.getPhaseNanos(Phase.ALGORITHM);
+        event.features = stats.getCount(Counter.FEATURES);
+        event.nodes = stats.getCount(Counter.NODES);
+        event.edges = stats.getCount(Counter.EDGES);
+        event.candidatePairs = stats.getCount(Counter.CANDIDATE_PAIRS);
+        event.predicateHits = stats.getCount(Counter.PREDICATE_HITS);
+        event.skippedEmptyGeometries = stats.getCount(Counter.SKIPPED_EMPTY_GEOMETRIES);
+        event.estimatedHeap = stats.getEstimatedHeapBytes();
+        event.commit();
+    }
+
+}
@@ -0,0 +1,266 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import com.vividsolutions.jump.feature.AttributeType;
+import org.jgrapht.Graph;
+
+/**
+ * Edge betweenness centrality of graphs built from feature collections.
+ * <p>Scores are computed with Brandes' algorithm on edge weights. For large
+ * graphs, the computation can be started from a random sample of source
+ * vertices (edgeBetweennessSample) or from a sample sized from an error
+ * bound (edgeBetweennessApprox), scores being then extrapolated to the whole
+ * graph, and it can be limited to paths shorter than a cutoff radius (local
+ * centrality).</p>
+ * Sources are processed in parallel, each worker using its own primitive
+ * arrays and accumulating dependencies into its own score array. Worker
+ * scores are added at the end.
+ * <p>Weights must be positive. In an undirected graph, the score of an edge
+ * is the number of shortest paths between unordered pairs of vertices going
+ * through this edge.</p>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class BetweennessCentrality {
+
+    /**
+     * Tolerance used to compare path lengths.
+     */
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * Returns exact edge betweenness of graph.
+     * @param graph the graph
+     * @return a map containing the betweenness of each edge
+     */
+    public static <V,E> Map<E,Double> edgeBetweenness(Graph<V,E> graph) {
+        return edgeBetweennessSample(graph, Integer.MAX_VALUE, Double.POSITIVE_INFINITY, 0L);
+    }
+
+    /**
+     * Returns edge betweenness of graph estimated from a uniform sample of
+     * source vertices.
+     * @param graph the graph
+     * @param sampleSize number of source vertices (all vertices are used if
+     *                   sampleSize is greater than the number of vertices)
+     * @param radius only paths shorter than radius are considered
+     *               (Double.POSITIVE_INFINITY for global betweenness)
+     * @param seed seed of the random generator used to pick sources
+     * @return a map containing the betweenness of each edge
+     */
+    public static <V,E> Map<E,Double> edgeBetweennessSample(Graph<V,E> graph,
+                                                            int sampleSize, double radius, long seed) {
+        IntGraph<V,E> g = IntGraph.of(graph);
+        double[] scores = scores(g, sources(g.vertexCount(), sampleSize, seed), radius);
+        Map<E,Double> map = new HashMap<>(Math.max(16, (int)(scores.length/0.75f) + 1));
+        for (int e = 0 ; e < scores.length ; e++) map.put(g.edge(e), scores[e]);
+        return map;
+    }
+
+    /**
+     * Returns edge betweenness of graph estimated from a number of sources
+     * large enough to guarantee that, with probability 1-delta, the error on
+     * every edge betweenness normalized by n(n-1) is less than epsilon.
+     * <p>The sampling is not adaptive : the number of sources is fixed before
+     * the computation from the worst case bound of {@link #sampleSize(double,
+     * double, int)}, whatever the scores observed during the computation.</p>
+     * @param graph the graph
+     * @param epsilon maximum error on normalized betweenness
+     * @param delta probability that the error exceeds epsilon
+     * @param seed seed of the random generator used to pick sources
+     * @return a map containing the betweenness of each edge
+     * @see #sampleSize(double, double, int)
+     */
+    public static <V,E> Map<E,Double> edgeBetweennessApprox(Graph<V,E> graph,
+                                                            double epsilon, double delta, long seed) {
+        return edgeBetweennessSample(graph, sampleSize(epsilon, delta, graph.edgeSet().size()),
+                Double.POSITIVE_INFINITY, seed);
+    }
+
+    /**
+     * Returns the number of sources needed so that, with probability 1-delta,
+     * the error on the normalized betweenness of every edge is less than
+     * epsilon (Hoeffding inequality and union bound over edges).
+     * @param epsilon maximum error on normalized betweenness
+     * @param delta probability that the error exceeds epsilon
+     * @param edgeCount number of edges of the graph
+     */
+    public static int sampleSize(double epsilon, double delta, int edgeCount) {
+        assert epsilon > 0 && epsilon < 1 : "" + epsilon + " : epsilon must be in ]0,1[";
+        assert delta > 0 && delta < 1 : "" + delta + " : delta must be in ]0,1[";
+        double size = Math.log(2.0 * Math.max(1, edgeCount) / delta) / (2 * epsilon * epsilon);
+        return (int)Math.min(Integer.MAX_VALUE, Math.ceil(size));
+    }
+
+    /**
+     * Computes edge betweenness of graph and writes it into the features
+     * associated to the edges. The score is only written into features whose
+     * schema has a DOUBLE attribute named attributeName.
+     * @param graph the graph
+     * @param attributeName name of the attribute receiving the betweenness
+     * @param sampleSize number of source vertices
+     * @param radius only paths shorter than radius are considered
+     * @param seed seed of the random generator used to pick sources
+     * @return the number of features which have been updated
+     */
+    public static int writeEdgeBetweenness(Graph<INode,FeatureAsEdge> graph, String attributeName,
+                                           int sampleSize, double radius, long seed) {
+        IntGraph<INode,FeatureAsEdge> g = IntGraph.of(graph);
+        double[] scores = scores(g, sources(g.vertexCount(), sampleSize, seed), radius);
+        int count = 0;
+        for (int e = 0 ; e < scores.length ; e++) {
+            FeatureAsEdge f = g.edge(e);
+            if (f.getSchema().hasAttribute(attributeName) &&
+                f.getSchema().getAttributeType(attributeName) == AttributeType.DOUBLE) {
+                f.setAttribute(attributeName, scores[e]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Picks sampleSize distinct vertices among n (partial Fisher-Yates shuffle).
+     */
+    private static int[] sources(int n, int sampleSize, long seed) {
+        int[] vertices = new int[n];
+        for (int i = 0 ; i < n ; i++) vertices[i] = i;
+        if (sampleSize >= n) return vertices;
+        Random random = new Random(seed);
+        for (int i = 0 ; i < sampleSize ; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = tmp;
+        }
+        return Arrays.copyOf(vertices, sampleSize);
+    }
+
+
+    /**
+     * Runs Brandes' algorithm from sources in parallel and returns the
+     * extrapolated score of each edge.
+     */
+    private static double[] scores(IntGraph<?,?> g, int[] sources, double radius) {
+        int m = g.edgeCount();
+        if (sources.length == 0) return new double[m];
+        int workers = Math.min(sources.length, Runtime.getRuntime().availableProcessors());
+        double[] scores = IntStream.range(0, workers).parallel()
+                .mapToObj(w -> {
+                    Worker worker = new Worker(g, radius);
+                    for (int i = w ; i < sources.length ; i += workers) {
+                        worker.accumulate(sources[i]);
+                    }
+                    return worker.scores;
+                })
+                .reduce((s1, s2) -> {
+                    for (int e = 0 ; e < m ; e++) s1[e] += s2[e];
+                    return s1;
+                })
+                .orElse(new double[m]);
+        double factor = (double)g.vertexCount() / sources.length;
+        if (!g.directed) factor /= 2;
+        for (int e = 0 ; e < m ; e++) scores[e] *= factor;
+        return scores;
+    }
+
+
+    /**
+     * Search state and dependency accumulator of a single thread.
+     * Arrays are reused from one source to the next, stamps avoiding to clear
+     * them.
+     */
+    private static final class Worker {
+
+        private final IntGraph<?,?> g;
+        private final double radius;
+        private final double[] scores;
+        private final double[] dist;
+        private final double[] sigma;
+        private final double[] delta;
+        private final int[] seen;
+        private final int[] settled;
+        private final int[] order;
+        private final MinHeap heap;
+        private int round = 0;
+
+        Worker(IntGraph<?,?> g, double radius) {
+            int n = g.vertexCount();
+            this.g = g;
+            this.radius = radius;
+            this.scores = new double[g.edgeCount()];
+            this.dist = new double[n];
+            this.sigma = new double[n];
+            this.delta = new double[n];
+            this.seen = new int[n];
+            this.settled = new int[n];
+            this.order = new int[n];
+            this.heap = new MinHeap(1024);
+        }
+
+        /**
+         * Adds the dependencies of source s to the edge scores.
+         */
+        void accumulate(int s) {
+            round++;
+            int count = 0;
+            heap.clear();
+            dist[s] = 0;
+            seen[s] = round;
+            heap.add(s, 0);
+            while (!heap.isEmpty()) {
+                double d = heap.minKey();
+                int v = heap.poll();
+                if (settled[v] == round || d > dist[v]) continue;
+                if (d > radius) break;
+                settled[v] = round;
+                order[count++] = v;
+                delta[v] = 0;
+                if (v == s) {
+                    sigma[v] = 1;
+                } else {
+                    double paths = 0;
+                    for (int i = g.inOffsets[v] ; i < g.inOffsets[v+1] ; i++) {
+                        int u = g.inSources[i];
+                        if (isPredecessor(u, g.inEdges[i], v)) paths += sigma[u];
+                    }
+                    sigma[v] = paths;
+                }
+                for (int i = g.outOffsets[v] ; i < g.outOffsets[v+1] ; i++) {
+                    int w = g.outTargets[i];
+                    double nd = d + g.weights[g.outEdges[i]];
+                    if (seen[w] != round || nd < dist[w]) {
+                        seen[w] = round;
+                        dist[w] = nd;
+                        heap.add(w, nd);
+                    }
+                }
+            }
+            for (int k = count - 1 ; k > 0 ; k--) {
+                int w = order[k];
+                double coefficient = (1 + delta[w]) / sigma[w];
+                for (int i = g.inOffsets[w] ; i < g.inOffsets[w+1] ; i++) {
+                    int v = g.inSources[i];
+                    int e = g.inEdges[i];
+                    if (isPredecessor(v, e, w)) {
+                        double c = sigma[v] * coefficient;
+                        scores[e] += c;
+                        delta[v] += c;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns true if edge e from u is on a shortest path to v.
+         */
+        private boolean isPredecessor(int u, int e, int v) {
+            return u != v && settled[u] == round &&
+                    Math.abs(dist[u] + g.weights[e] - dist[v]) <= EPSILON * Math.max(1.0, dist[v]);
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Token used to request the cancellation of a long graph operation.
+ * Operations check the token between chunks of features and stop with a
+ * CancellationException as soon as cancellation has been requested.
+ * <p>A token may be shared by several operations, and cancelling the
+ * CompletableFuture returned by an async operation cancels its token.</p>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Requests the cancellation of the operations using this token.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws a CancellationException if cancellation has been requested.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) throw new CancellationException("graph operation cancelled");
+    }
+
+}
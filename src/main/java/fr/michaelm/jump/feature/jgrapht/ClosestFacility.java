@@ -0,0 +1,468 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import org.jgrapht.Graph;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Closest facility assignment and p-median location on a network built by
+ * GraphFactory.
+ * <p>Facilities and demand points are given as coordinates and snapped to the
+ * nearest edge within snapRadius through a spatial index. The cost of a
+ * demand point is the network distance from the demand point to a facility,
+ * following edge directions if the graph is directed.</p>
+ * <p>{@link #assign(List, List)} runs a single multi-source Dijkstra search
+ * (backwards, from all the facilities at once) labelling every node with its
+ * closest facility and cost, then reads the cost of each demand point from
+ * the labels of the ends of its edge.</p>
+ * <p>{@link #pMedian(List, List, double[], int, int)} chooses p facilities
+ * among candidates so that the weight of the demand points which cannot reach
+ * any chosen facility is minimal (islands, one-way networks), then so that
+ * the sum of weighted demand costs is minimal. It starts from a greedy
+ * solution and improves it by swapping an open facility with a closed
+ * candidate (Teitz and Bart heuristic). All swaps of an iteration are
+ * evaluated in parallel.</p>
+ * Edge weights are expected to be proportional to the lengths of edge
+ * geometries. A ClosestFacility is immutable and can be used by several
+ * threads.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class ClosestFacility {
+
+    /**
+     * Maximum number of cells of the p-median cost matrix (candidates x
+     * distinct demand places), i.e. 1 GB of floats.
+     */
+    public static final long MAX_MATRIX_CELLS = 1L << 28;
+
+    private final FrozenGraph<INode,FeatureAsEdge> graph;
+    private final IntGraph<INode,FeatureAsEdge> g;
+    private final EdgeIndex index;
+    private final double snapRadius;
+
+
+    /**
+     * Result of a closest facility assignment.
+     */
+    public static final class Assignment {
+
+        private final int[] facilities;
+        private final double[] costs;
+
+        private Assignment(int[] facilities, double[] costs) {
+            this.facilities = facilities;
+            this.costs = costs;
+        }
+
+        /**
+         * Returns the number of demand points.
+         */
+        public int size() {
+            return facilities.length;
+        }
+
+        /**
+         * Returns the index of the facility assigned to demand point k, or -1
+         * if demand point k could not be snapped or cannot reach any facility.
+         */
+        public int getFacility(int k) {
+            return facilities[k];
+        }
+
+        /**
+         * Returns the network cost from demand point k to its facility, or
+         * Double.POSITIVE_INFINITY if it has no facility.
+         */
+        public double getCost(int k) {
+            return costs[k];
+        }
+
+        /**
+         * Returns the sum of the costs of demand points having a facility.
+         */
+        public double getTotalCost() {
+            double sum = 0;
+            for (int k = 0 ; k < costs.length ; k++) if (facilities[k] >= 0) sum += costs[k];
+            return sum;
+        }
+
+        /**
+         * Returns the number of demand points assigned to each facility.
+         * @param facilityCount number of facilities
+         */
+        public int[] getDemandCounts(int facilityCount) {
+            int[] counts = new int[facilityCount];
+            for (int f : facilities) if (f >= 0) counts[f]++;
+            return counts;
+        }
+    }
+
+
+    /**
+     * Creates a ClosestFacility for graph.
+     * @param graph the network (directed or undirected)
+     * @param snapRadius maximum distance between a point and its edge
+     */
+    public ClosestFacility(Graph<INode,FeatureAsEdge> graph, double snapRadius) {
+        this(FrozenGraph.freeze(graph), snapRadius);
+    }
+
+    /**
+     * Creates a ClosestFacility for a frozen graph.
+     * @param graph the network (directed or undirected)
+     * @param snapRadius maximum distance between a point and its edge
+     */
+    public ClosestFacility(FrozenGraph<INode,FeatureAsEdge> graph, double snapRadius) {
+        assert snapRadius >= 0 : "" + snapRadius + " : snapRadius must be positive or null";
+        this.graph = graph;
+        this.g = graph.intGraph();
+        this.index = new EdgeIndex(g);
+        this.snapRadius = snapRadius;
+    }
+
+    public FrozenGraph<INode,FeatureAsEdge> getGraph() {
+        return graph;
+    }
+
+
+    /**
+     * Assigns each demand point to its closest facility.
+     * @param facilities coordinates of the facilities
+     * @param demands coordinates of the demand points
+     * @return the facility and cost of each demand point
+     */
+    public Assignment assign(List<Coordinate> facilities, List<Coordinate> demands) {
+        EdgeIndex.Snap[] sources = snap(facilities);
+        EdgeIndex.Snap[] targets = snap(demands);
+        int n = g.vertexCount();
+        double[] dist = new double[n];
+        int[] label = new int[n];
+        search(sources, dist, label);
+        Map<Integer,List<Integer>> byEdge = byEdge(sources);
+        int[] facilityOf = new int[targets.length];
+        double[] costs = new double[targets.length];
+        IntStream.range(0, targets.length).parallel().forEach(k -> {
+            EdgeIndex.Snap d = targets[k];
+            int best = -1;
+            double cost = Double.POSITIVE_INFINITY;
+            if (d != null) {
+                int v = g.edgeTarget[d.edge];
+                double c = g.weights[d.edge] - d.offset + dist[v];
+                if (c < cost) {
+                    cost = c;
+                    best = label[v];
+                }
+                if (!g.directed) {
+                    int u = g.edgeSource[d.edge];
+                    c = d.offset + dist[u];
+                    if (c < cost) {
+                        cost = c;
+                        best = label[u];
+                    }
+                }
+                for (int f : byEdge.getOrDefault(d.edge, Collections.emptyList())) {
+                    c = sameEdgeCost(d, sources[f]);
+                    if (c < cost) {
+                        cost = c;
+                        best = f;
+                    }
+                }
+            }
+            facilityOf[k] = best;
+            costs[k] = cost;
+        });
+        return new Assignment(facilityOf, costs);
+    }
+
+
+    /**
+     * Chooses p facilities among candidates minimizing first the weight of the
+     * demand points which cannot reach any chosen facility, then the sum of
+     * the weighted costs of the other demand points.
+     * <p>Demand points snapped at the same place of the network are
+     * aggregated into a single weighted demand point. The cost matrix between
+     * candidates and aggregated demand points is stored as floats (4 bytes per
+     * cell) : its size is limited to {@link #MAX_MATRIX_CELLS} and demand
+     * points should be aggregated beforehand (ex. by block) for larger
+     * problems. Demand points which cannot reach any candidate are
+     * ignored.</p>
+     * @param candidates coordinates of the candidate facilities
+     * @param demands coordinates of the demand points
+     * @param weights weight of each demand point (null for 1.0)
+     * @param p number of facilities to choose
+     * @param maxIterations maximum number of swaps
+     * @return the indices of the chosen candidates, in increasing order
+     * @throws IllegalArgumentException if the cost matrix would have more than
+     * MAX_MATRIX_CELLS cells
+     */
+    public int[] pMedian(List<Coordinate> candidates, List<Coordinate> demands,
+                         double[] weights, int p, int maxIterations) {
+        assert p > 0 : "" + p + " : p must be positive";
+        int c = candidates.size();
+        if (p >= c) return IntStream.range(0, c).toArray();
+        EdgeIndex.Snap[] sources = snap(candidates);
+
+        // demand points snapped at the same place have the same costs
+        EdgeIndex.Snap[] snapped = snap(demands);
+        Map<Integer,Map<Double,Integer>> places = new HashMap<>();
+        EdgeIndex.Snap[] targets = new EdgeIndex.Snap[snapped.length];
+        double[] aggregated = new double[snapped.length];
+        int dCount = 0;
+        for (int k = 0 ; k < snapped.length ; k++) {
+            EdgeIndex.Snap d = snapped[k];
+            double weight = weights == null ? 1.0 : weights[k];
+            if (d == null || weight == 0) continue;
+            Map<Double,Integer> onEdge = places.computeIfAbsent(d.edge, e -> new HashMap<>());
+            Integer i = onEdge.get(d.offset);
+            if (i == null) {
+                onEdge.put(d.offset, dCount);
+                targets[dCount] = d;
+                aggregated[dCount++] = weight;
+            } else {
+                aggregated[i] += weight;
+            }
+        }
+        if ((long)c * dCount > MAX_MATRIX_CELLS) {
+            throw new IllegalArgumentException("" + c + " candidates x " + dCount +
+                    " demand places : p-median cost matrix larger than " + MAX_MATRIX_CELLS + " cells");
+        }
+        float[][] matrix = costMatrix(sources, Arrays.copyOf(targets, dCount));
+        double[] w = Arrays.copyOf(aggregated, dCount);
+        for (int k = 0 ; k < dCount ; k++) {
+            // ignore demand points which cannot reach any candidate
+            boolean reachable = false;
+            for (int j = 0 ; j < c && !reachable ; j++) reachable = matrix[j][k] < Float.POSITIVE_INFINITY;
+            if (!reachable) w[k] = 0;
+        }
+
+        // greedy initial solution
+        boolean[] open = new boolean[c];
+        double[] current = new double[dCount];
+        Arrays.fill(current, Double.POSITIVE_INFINITY);
+        Cost[] added = new Cost[c];
+        for (int i = 0 ; i < p ; i++) {
+            IntStream.range(0, c).parallel()
+                    .filter(j -> !open[j])
+                    .forEach(j -> added[j] = addCost(matrix[j], current, w));
+            int best = -1;
+            for (int j = 0 ; j < c ; j++) {
+                if (!open[j] && (best < 0 || added[j].compareTo(added[best]) < 0)) best = j;
+            }
+            open[best] = true;
+            for (int k = 0 ; k < dCount ; k++) current[k] = Math.min(current[k], matrix[best][k]);
+        }
+
+        // swaps
+        int[] solution = IntStream.range(0, c).filter(j -> open[j]).toArray();
+        Cost cost = totalCost(matrix, solution, w);
+        for (int iteration = 0 ; iteration < maxIterations ; iteration++) {
+            int[] first = new int[dCount];
+            int[] second = new int[dCount];
+            closest(matrix, solution, first, second);
+            int[] closed = IntStream.range(0, c).filter(j -> !open[j]).toArray();
+            final int[] sol = solution;
+            Cost[] swaps = new Cost[sol.length * closed.length];
+            IntStream.range(0, swaps.length).parallel().forEach(i -> swaps[i] =
+                    swapCost(matrix, first, second, sol[i / closed.length], closed[i % closed.length], w));
+            int s = 0;
+            for (int t = 1 ; t < swaps.length ; t++) if (swaps[t].compareTo(swaps[s]) < 0) s = t;
+            if (!swaps[s].improves(cost)) break;
+            open[sol[s / closed.length]] = false;
+            open[closed[s % closed.length]] = true;
+            solution = IntStream.range(0, c).filter(j -> open[j]).toArray();
+            cost = swaps[s];
+        }
+        return solution;
+    }
+
+
+    private EdgeIndex.Snap[] snap(List<Coordinate> points) {
+        return points.parallelStream()
+                .map(p -> index.nearest(p, snapRadius))
+                .toArray(EdgeIndex.Snap[]::new);
+    }
+
+    private static Map<Integer,List<Integer>> byEdge(EdgeIndex.Snap[] sources) {
+        Map<Integer,List<Integer>> map = new HashMap<>();
+        for (int f = 0 ; f < sources.length ; f++) {
+            if (sources[f] != null) map.computeIfAbsent(sources[f].edge, e -> new ArrayList<>()).add(f);
+        }
+        return map;
+    }
+
+    /**
+     * Cost from demand point d to facility f located on the same edge.
+     */
+    private double sameEdgeCost(EdgeIndex.Snap d, EdgeIndex.Snap f) {
+        if (f.offset >= d.offset) return f.offset - d.offset;
+        return g.directed ? Double.POSITIVE_INFINITY : d.offset - f.offset;
+    }
+
+    /**
+     * Multi-source Dijkstra search from the facilities, following edges
+     * backwards : dist[v] is the cost from v to its closest facility label[v].
+     */
+    private void search(EdgeIndex.Snap[] sources, double[] dist, int[] label) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(label, -1);
+        MinHeap heap = new MinHeap(Math.max(16, 2 * sources.length));
+        for (int f = 0 ; f < sources.length ; f++) {
+            EdgeIndex.Snap s = sources[f];
+            if (s == null) continue;
+            // a demand point at the edge source reaches the facility along the edge
+            int u = g.edgeSource[s.edge];
+            if (s.offset < dist[u]) {
+                dist[u] = s.offset;
+                label[u] = f;
+                heap.add(u, s.offset);
+            }
+            if (!g.directed) {
+                int v = g.edgeTarget[s.edge];
+                double c = g.weights[s.edge] - s.offset;
+                if (c < dist[v]) {
+                    dist[v] = c;
+                    label[v] = f;
+                    heap.add(v, c);
+                }
+            }
+        }
+        boolean[] settled = new boolean[dist.length];
+        while (!heap.isEmpty()) {
+            double d = heap.minKey();
+            int v = heap.poll();
+            if (settled[v] || d > dist[v]) continue;
+            settled[v] = true;
+            for (int i = g.inOffsets[v] ; i < g.inOffsets[v+1] ; i++) {
+                int u = g.inSources[i];
+                double nd = d + g.weights[g.inEdges[i]];
+                if (nd < dist[u]) {
+                    dist[u] = nd;
+                    label[u] = label[v];
+                    heap.add(u, nd);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the cost from each demand point to each candidate, one search
+     * per candidate, candidates being processed in parallel.
+     */
+    private float[][] costMatrix(EdgeIndex.Snap[] sources, EdgeIndex.Snap[] targets) {
+        float[][] matrix = new float[sources.length][];
+        int n = g.vertexCount();
+        IntStream.range(0, sources.length).parallel().forEach(j -> {
+            double[] dist = new double[n];
+            int[] label = new int[n];
+            EdgeIndex.Snap[] single = new EdgeIndex.Snap[]{sources[j]};
+            search(single, dist, label);
+            float[] row = new float[targets.length];
+            for (int k = 0 ; k < targets.length ; k++) {
+                EdgeIndex.Snap d = targets[k];
+                double cost = Double.POSITIVE_INFINITY;
+                if (d != null && sources[j] != null) {
+                    cost = g.weights[d.edge] - d.offset + dist[g.edgeTarget[d.edge]];
+                    if (!g.directed) cost = Math.min(cost, d.offset + dist[g.edgeSource[d.edge]]);
+                    if (d.edge == sources[j].edge) cost = Math.min(cost, sameEdgeCost(d, sources[j]));
+                }
+                row[k] = (float)cost;
+            }
+            matrix[j] = row;
+        });
+        return matrix;
+    }
+
+    private static Cost addCost(float[] row, double[] current, double[] w) {
+        Cost cost = new Cost();
+        for (int k = 0 ; k < row.length ; k++) {
+            if (w[k] != 0) cost.add(w[k], Math.min(current[k], row[k]));
+        }
+        return cost;
+    }
+
+    private static Cost totalCost(float[][] matrix, int[] solution, double[] w) {
+        Cost cost = new Cost();
+        for (int k = 0 ; k < w.length ; k++) {
+            if (w[k] == 0) continue;
+            double min = Double.POSITIVE_INFINITY;
+            for (int j : solution) min = Math.min(min, matrix[j][k]);
+            cost.add(w[k], min);
+        }
+        return cost;
+    }
+
+    /**
+     * Computes the closest and second closest open facility of each demand
+     * point (second is -1 if there is a single open facility).
+     */
+    private static void closest(float[][] matrix, int[] solution, int[] first, int[] second) {
+        for (int k = 0 ; k < first.length ; k++) {
+            int f1 = -1;
+            int f2 = -1;
+            for (int j : solution) {
+                if (f1 < 0 || matrix[j][k] < matrix[f1][k]) {
+                    f2 = f1;
+                    f1 = j;
+                } else if (f2 < 0 || matrix[j][k] < matrix[f2][k]) {
+                    f2 = j;
+                }
+            }
+            first[k] = f1;
+            second[k] = f2;
+        }
+    }
+
+    /**
+     * Returns the total cost of the solution where facility out is replaced
+     * by candidate in.
+     */
+    private static Cost swapCost(float[][] matrix, int[] first, int[] second, int out, int in, double[] w) {
+        Cost cost = new Cost();
+        float[] row = matrix[in];
+        for (int k = 0 ; k < w.length ; k++) {
+            if (w[k] == 0) continue;
+            double remaining = first[k] != out ? matrix[first[k]][k] :
+                    second[k] < 0 ? Double.POSITIVE_INFINITY : matrix[second[k]][k];
+            cost.add(w[k], Math.min(remaining, row[k]));
+        }
+        return cost;
+    }
+
+
+    /**
+     * Lexicographic p-median objective : weight of the uncovered demand
+     * points (which cannot reach any open facility), then sum of the weighted
+     * costs of covered demand points. Keeping uncovered points apart avoids
+     * infinite sums, which cannot be compared.
+     */
+    private static final class Cost implements Comparable<Cost> {
+
+        private double uncovered;
+        private double sum;
+
+        void add(double weight, double cost) {
+            if (cost == Double.POSITIVE_INFINITY) uncovered += weight;
+            else sum += weight * cost;
+        }
+
+        @Override
+        public int compareTo(Cost other) {
+            int c = Double.compare(uncovered, other.uncovered);
+            return c != 0 ? c : Double.compare(sum, other.sum);
+        }
+
+        /**
+         * Returns true if this cost is significantly lower than other.
+         */
+        boolean improves(Cost other) {
+            double tolerance = 1e-9 * Math.max(1.0, other.uncovered);
+            if (uncovered < other.uncovered - tolerance) return true;
+            if (uncovered > other.uncovered + tolerance) return false;
+            return sum < other.sum - 1e-9 * Math.max(1.0, Math.abs(other.sum));
+        }
+    }
+
+}
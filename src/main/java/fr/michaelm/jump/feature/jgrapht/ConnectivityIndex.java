@@ -0,0 +1,314 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Connectivity index of a graph built from a feature collection.
+ * <p>The index is built once, in linear time, and stores the connected
+ * component of each node and of each edge in primitive arrays. Questions like
+ * "are these two nodes in the same network ?" are then answered in constant
+ * time, without building the node sets of GraphUtil.createConnectedNodeSets.
+ * Components of a directed graph are its weakly connected components.</p>
+ * <p>The index also contains the bridges (edges whose removal disconnects
+ * their component) and the articulation points (nodes whose removal
+ * disconnects their component) of the graph, considered as undirected. They
+ * are the single points of failure of a network. A loop is never a bridge,
+ * and parallel edges are never bridges.</p>
+ * Components are numbered from 0, in the order of the first node of each
+ * component. An index is immutable and can be shared by several threads.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class ConnectivityIndex {
+
+    private final FrozenGraph<INode,FeatureAsEdge> graph;
+    private final int[] vertexComponent;
+    private final int[] edgeComponent;
+    private final int[] componentSize;
+    private final int[] componentEdgeCount;
+    private final Envelope[] componentEnvelope;
+    private final boolean[] bridge;
+    private final boolean[] articulation;
+
+
+    private ConnectivityIndex(FrozenGraph<INode,FeatureAsEdge> graph) {
+        this.graph = graph;
+        IntGraph<INode,FeatureAsEdge> g = graph.intGraph();
+        int n = g.vertexCount();
+        int m = g.edgeCount();
+        vertexComponent = components(g);
+        int count = 0;
+        for (int c : vertexComponent) count = Math.max(count, c + 1);
+        componentSize = new int[count];
+        componentEdgeCount = new int[count];
+        componentEnvelope = new Envelope[count];
+        for (int c = 0 ; c < count ; c++) componentEnvelope[c] = new Envelope();
+        for (int v = 0 ; v < n ; v++) {
+            int c = vertexComponent[v];
+            componentSize[c]++;
+            componentEnvelope[c].expandToInclude(g.vertex(v).getCoordinate());
+        }
+        edgeComponent = new int[m];
+        for (int e = 0 ; e < m ; e++) {
+            int c = vertexComponent[g.edgeSource[e]];
+            edgeComponent[e] = c;
+            componentEdgeCount[c]++;
+            Geometry geometry = g.edge(e).getGeometry();
+            if (geometry != null) componentEnvelope[c].expandToInclude(geometry.getEnvelopeInternal());
+        }
+        bridge = new boolean[m];
+        articulation = new boolean[n];
+        findBridgesAndArticulationPoints(g, bridge, articulation);
+    }
+
+
+    /**
+     * Builds the connectivity index of graph.
+     * @param graph a graph built by GraphFactory (directed or undirected)
+     */
+    public static ConnectivityIndex of(Graph<INode,FeatureAsEdge> graph) {
+        return new ConnectivityIndex(FrozenGraph.freeze(graph));
+    }
+
+    /**
+     * Builds the connectivity index of a frozen graph.
+     * @param graph a frozen graph (directed or undirected)
+     */
+    public static ConnectivityIndex of(FrozenGraph<INode,FeatureAsEdge> graph) {
+        return new ConnectivityIndex(graph);
+    }
+
+    /**
+     * Builds the connectivity index of the undirected graph formed by features.
+     * @param features the collection of features
+     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+     */
+    public static ConnectivityIndex of(Collection<Feature> features, boolean dim3) {
+        return of(GraphFactory.createUndirectedGraph(features, dim3));
+    }
+
+
+    public FrozenGraph<INode,FeatureAsEdge> getGraph() {
+        return graph;
+    }
+
+    public int getComponentCount() {
+        return componentSize.length;
+    }
+
+    /**
+     * Returns the component of node, or -1 if node is not in the graph.
+     */
+    public int componentOf(INode node) {
+        int v = graph.indexOfVertex(node);
+        return v < 0 ? -1 : vertexComponent[v];
+    }
+
+    /**
+     * Returns the component of edge, or -1 if edge is not in the graph.
+     */
+    public int componentOf(FeatureAsEdge edge) {
+        int e = graph.indexOfEdge(edge);
+        return e < 0 ? -1 : edgeComponent[e];
+    }
+
+    /**
+     * Returns true if node1 and node2 are in the same component.
+     */
+    public boolean isConnected(INode node1, INode node2) {
+        int c = componentOf(node1);
+        return c >= 0 && c == componentOf(node2);
+    }
+
+    /**
+     * Returns true if edge1 and edge2 are in the same component.
+     */
+    public boolean isConnected(FeatureAsEdge edge1, FeatureAsEdge edge2) {
+        int c = componentOf(edge1);
+        return c >= 0 && c == componentOf(edge2);
+    }
+
+    /**
+     * Returns the number of nodes of component.
+     */
+    public int getComponentSize(int component) {
+        return componentSize[component];
+    }
+
+    /**
+     * Returns the number of edges of component.
+     */
+    public int getComponentEdgeCount(int component) {
+        return componentEdgeCount[component];
+    }
+
+    /**
+     * Returns the envelope of the nodes and edge geometries of component.
+     */
+    public Envelope getComponentEnvelope(int component) {
+        return new Envelope(componentEnvelope[component]);
+    }
+
+    /**
+     * Returns the component containing the largest number of nodes, or -1 if
+     * the graph is empty.
+     */
+    public int getLargestComponent() {
+        int largest = -1;
+        for (int c = 0 ; c < componentSize.length ; c++) {
+            if (largest < 0 || componentSize[c] > componentSize[largest]) largest = c;
+        }
+        return largest;
+    }
+
+    /**
+     * Returns true if the removal of edge disconnects its component.
+     */
+    public boolean isBridge(FeatureAsEdge edge) {
+        int e = graph.indexOfEdge(edge);
+        return e >= 0 && bridge[e];
+    }
+
+    /**
+     * Returns true if the removal of node disconnects its component.
+     */
+    public boolean isArticulationPoint(INode node) {
+        int v = graph.indexOfVertex(node);
+        return v >= 0 && articulation[v];
+    }
+
+    /**
+     * Returns the edges whose removal disconnects their component.
+     */
+    public List<FeatureAsEdge> getBridges() {
+        List<FeatureAsEdge> list = new ArrayList<>();
+        for (int e = 0 ; e < bridge.length ; e++) {
+            if (bridge[e]) list.add(graph.getEdge(e));
+        }
+        return list;
+    }
+
+    /**
+     * Returns the nodes whose removal disconnects their component.
+     */
+    public List<INode> getArticulationPoints() {
+        List<INode> list = new ArrayList<>();
+        for (int v = 0 ; v < articulation.length ; v++) {
+            if (articulation[v]) list.add(graph.getVertex(v));
+        }
+        return list;
+    }
+
+
+    /**
+     * Labels the (weakly) connected components of g with a union-find over
+     * edges.
+     */
+    private static int[] components(IntGraph<?,?> g) {
+        int n = g.vertexCount();
+        int[] parent = new int[n];
+        for (int v = 0 ; v < n ; v++) parent[v] = v;
+        for (int e = 0 ; e < g.edgeCount() ; e++) {
+            int r1 = find(parent, g.edgeSource[e]);
+            int r2 = find(parent, g.edgeTarget[e]);
+            if (r1 != r2) parent[Math.max(r1, r2)] = Math.min(r1, r2);
+        }
+        // roots are the smallest vertex of each component
+        int[] components = new int[n];
+        int count = 0;
+        for (int v = 0 ; v < n ; v++) {
+            int r = find(parent, v);
+            components[v] = r == v ? count++ : components[r];
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+
+    /**
+     * Iterative version of Tarjan's bridge and articulation point algorithm
+     * on the undirected view of g. The edge used to reach a vertex is skipped
+     * by index rather than by vertex, so that parallel edges are back edges.
+     */
+    private static void findBridgesAndArticulationPoints(IntGraph<?,?> g,
+                                                         boolean[] bridge, boolean[] articulation) {
+        int n = g.vertexCount();
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] parentEdge = new int[n];
+        int[] stack = new int[n];
+        int[] position = new int[n];
+        Arrays.fill(disc, -1);
+        int time = 0;
+        for (int root = 0 ; root < n ; root++) {
+            if (disc[root] >= 0) continue;
+            int top = 0;
+            stack[0] = root;
+            position[0] = 0;
+            disc[root] = low[root] = time++;
+            parentEdge[root] = -1;
+            int rootChildren = 0;
+            while (top >= 0) {
+                int v = stack[top];
+                int k = position[top];
+                if (k < degree(g, v)) {
+                    position[top]++;
+                    int w = neighbour(g, v, k);
+                    int e = edge(g, v, k);
+                    if (e == parentEdge[v] || w == v) continue;
+                    if (disc[w] < 0) {
+                        disc[w] = low[w] = time++;
+                        parentEdge[w] = e;
+                        stack[++top] = w;
+                        position[top] = 0;
+                        if (v == root) rootChildren++;
+                    } else if (disc[w] < low[v]) {
+                        low[v] = disc[w];
+                    }
+                } else {
+                    top--;
+                    if (top >= 0) {
+                        int u = stack[top];
+                        if (low[v] < low[u]) low[u] = low[v];
+                        if (low[v] > disc[u]) bridge[parentEdge[v]] = true;
+                        if (u != root && low[v] >= disc[u]) articulation[u] = true;
+                    }
+                }
+            }
+            if (rootChildren > 1) articulation[root] = true;
+        }
+    }
+
+    // undirected adjacency : out-arcs, then in-arcs if g is directed
+
+    private static int degree(IntGraph<?,?> g, int v) {
+        int d = g.outOffsets[v+1] - g.outOffsets[v];
+        return g.directed ? d + g.inOffsets[v+1] - g.inOffsets[v] : d;
+    }
+
+    private static int neighbour(IntGraph<?,?> g, int v, int k) {
+        int out = g.outOffsets[v+1] - g.outOffsets[v];
+        return k < out ? g.outTargets[g.outOffsets[v] + k] : g.inSources[g.inOffsets[v] + k - out];
+    }
+
+    private static int edge(IntGraph<?,?> g, int v, int k) {
+        int out = g.outOffsets[v+1] - g.outOffsets[v];
+        return k < out ? g.outEdges[g.outOffsets[v] + k] : g.inEdges[g.inOffsets[v] + k - out];
+    }
+
+}
@@ -0,0 +1,115 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Spatial index of the edges of an IntGraph, used to snap points onto the
+ * network. The position of a snapped point along its edge is expressed in
+ * edge weight units, from the edge source, edge weights being assumed
+ * proportional to the length of edge geometries, and edge geometries to go
+ * from the edge source to the edge target (as in graphs built by
+ * GraphFactory).
+ * The index is built at construction and can then be queried by several
+ * threads concurrently.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class EdgeIndex {
+
+    /**
+     * Projection of a point onto an edge.
+     */
+    static final class Snap {
+        final int edge;
+        // distance from the edge source along the edge, in weight units
+        final double offset;
+        // distance between the point and the edge
+        final double distance;
+
+        Snap(int edge, double offset, double distance) {
+            this.edge = edge;
+            this.offset = offset;
+            this.distance = distance;
+        }
+    }
+
+    private final IntGraph<INode,FeatureAsEdge> g;
+    private final STRtree index;
+
+    EdgeIndex(IntGraph<INode,FeatureAsEdge> g) {
+        this.g = g;
+        this.index = new STRtree();
+        for (int e = 0 ; e < g.edgeCount() ; e++) {
+            Geometry geometry = g.edge(e).getGeometry();
+            if (!geometry.isEmpty()) index.insert(geometry.getEnvelopeInternal(), e);
+        }
+        index.build();
+    }
+
+    /**
+     * Returns the projections of p onto the edges within radius, sorted by
+     * distance (at most max projections).
+     */
+    List<Snap> candidates(Coordinate p, double radius, int max) {
+        Envelope env = new Envelope(p);
+        env.expandBy(radius);
+        List<Snap> list = new ArrayList<>();
+        for (Object o : index.query(env)) {
+            Snap snap = project(p, (Integer)o);
+            if (snap.distance <= radius) list.add(snap);
+        }
+        list.sort(Comparator.comparingDouble(s -> s.distance));
+        return list.size() > max ? new ArrayList<>(list.subList(0, max)) : list;
+    }
+
+    /**
+     * Returns the projection of p onto the nearest edge within radius, or null
+     * if no edge is within radius.
+     */
+    Snap nearest(Coordinate p, double radius) {
+        Envelope env = new Envelope(p);
+        env.expandBy(radius);
+        Snap best = null;
+        for (Object o : index.query(env)) {
+            Snap snap = project(p, (Integer)o);
+            if (snap.distance <= radius && (best == null || snap.distance < best.distance)) best = snap;
+        }
+        return best;
+    }
+
+    /**
+     * Projects p onto the geometry of edge e.
+     */
+    Snap project(Coordinate p, int e) {
+        Coordinate[] cc = g.edge(e).getGeometry().getCoordinates();
+        double best = Double.POSITIVE_INFINITY;
+        double along = 0;
+        double length = 0;
+        for (int i = 1 ; i < cc.length ; i++) {
+            Coordinate a = cc[i-1];
+            Coordinate b = cc[i];
+            double dx = b.x - a.x;
+            double dy = b.y - a.y;
+            double l2 = dx * dx + dy * dy;
+            double f = l2 == 0 ? 0 : Math.max(0, Math.min(1, ((p.x - a.x) * dx + (p.y - a.y) * dy) / l2));
+            double d = Math.hypot(a.x + f * dx - p.x, a.y + f * dy - p.y);
+            double l = Math.sqrt(l2);
+            if (d < best) {
+                best = d;
+                along = length + f * l;
+            }
+            length += l;
+        }
+        if (cc.length == 1) best = p.distance(cc[0]);
+        double offset = length == 0 ? 0 : along / length * g.weights[e];
+        return new Snap(e, offset, best);
+    }
+
+}
@@ -3,47 +3,109 @@ package fr.michaelm.jump.feature.jgrapht;
 import com.vividsolutions.jump.feature.Feature;
 import com.vividsolutions.jump.feature.FeatureSchema;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 /**
  * This class implements both Feature from jump library and INode from
  * jump-jgrapht bridge.<br>
+ * The way two FeatureAsNode are compared is chosen at construction (see
+ * {@link KeyMode}). The envelope and the hash code are computed once at
+ * construction, the interior point once at first use, so that vertex lookups
+ * in a graph do not repeat geometry computations.<br>
  * initial release
  * @author Michael Michaud
+ * @version 1.1 (2026-10-19)
  * @version 1.0 (2021-03-19) for OpenJUMP 2
  * @version 0.3 (2008-02-02)
  */
 public class FeatureAsNode implements INode, Feature {
 
+    /**
+     * Semantics of FeatureAsNode equality.
+     */
+    public enum KeyMode {
+        /**
+         * Two nodes are equal if their geometries are equal (default).
+         * Features with equal geometries are merged into a single vertex.
+         */
+        GEOMETRY,
+        /**
+         * Two nodes are equal if they wrap the same feature instance.
+         */
+        IDENTITY,
+        /**
+         * Two nodes are equal if their features have the same ID.
+         */
+        FEATURE_ID
+    }
+
     private final Feature feature;
+    private final KeyMode keyMode;
+    private Envelope envelope;
+    private int hash;
+    private volatile Coordinate interiorPoint;
 
    /**
-    * Create Feature as an edge of a weighted graph
-    * @param feature the feature as an edge of a graph.
+    * Create Feature as a node of a graph, two nodes being equal if their
+    * geometries are equal.
+    * @param feature the feature as a node of a graph.
     */
     public FeatureAsNode(Feature feature) {
+        this(feature, KeyMode.GEOMETRY);
+    }
+
+   /**
+    * Create Feature as a node of a graph.
+    * @param feature the feature as a node of a graph.
+    * @param keyMode semantics of node equality
+    */
+    public FeatureAsNode(Feature feature, KeyMode keyMode) {
         this.feature = feature;
+        this.keyMode = keyMode;
+        updateKeys();
+    }
+
+    private void updateKeys() {
+        Geometry geometry = feature.getGeometry();
+        envelope = geometry == null ? new Envelope() : geometry.getEnvelopeInternal();
+        interiorPoint = null;
+        if (keyMode == KeyMode.IDENTITY) hash = System.identityHashCode(feature);
+        else if (keyMode == KeyMode.FEATURE_ID) hash = feature.getID();
+        else hash = envelope.hashCode();
     }
     
     public Feature getFeature() {
         return feature;
     }
+
+    public KeyMode getKeyMode() {
+        return keyMode;
+    }
+
+   /**
+    * Return the envelope of the geometry of this node, computed at
+    * construction. The returned envelope must not be modified.
+    */
+    public Envelope getEnvelope() {
+        return envelope;
+    }
     
     // Implementation of Feature interface using the Decorator pattern
 
     @Override
     public FeatureAsNode clone() {
-        return new FeatureAsNode(feature.clone());
+        return new FeatureAsNode(feature.clone(), keyMode);
     }
 
     @Override
     public FeatureAsNode clone(boolean deep) {
-        return new FeatureAsNode(feature.clone(deep));
+        return new FeatureAsNode(feature.clone(deep), keyMode);
     }
 
     @Override
     public FeatureAsNode clone(boolean b, boolean b1) {
-        return new FeatureAsNode(feature);
+        return new FeatureAsNode(feature, keyMode);
     }
 
     @Override
@@ -115,6 +177,7 @@ public class FeatureAsNode implements INode, Feature {
     @Override
     public void setGeometry(Geometry geometry) {
         feature.setGeometry(geometry);
+        updateKeys();
     }
 
     @Override
@@ -133,18 +196,29 @@ public class FeatureAsNode implements INode, Feature {
     */
     @Override
     public Coordinate getCoordinate() {
-        return feature.getGeometry().getInteriorPoint().getCoordinate();
+        Coordinate c = interiorPoint;
+        if (c == null) {
+            c = feature.getGeometry().getInteriorPoint().getCoordinate();
+            interiorPoint = c;
+        }
+        return c;
     }
 
     @Override
     public boolean equals(Object o) {
-      return o instanceof FeatureAsNode &&
-          getGeometry().equals(((FeatureAsNode)o).getGeometry());
+      if (o == this) return true;
+      if (!(o instanceof FeatureAsNode)) return false;
+      FeatureAsNode other = (FeatureAsNode)o;
+      if (keyMode != other.keyMode || hash != other.hash) return false;
+      if (keyMode == KeyMode.IDENTITY) return feature == other.feature;
+      if (keyMode == KeyMode.FEATURE_ID) return feature.getID() == other.feature.getID();
+      return feature == other.feature || envelope.equals(other.envelope) &&
+          getGeometry().equals(other.getGeometry());
     }
 
     @Override
     public int hashCode() {
-      return getGeometry().hashCode();
+      return hash;
     }
 
     @Override
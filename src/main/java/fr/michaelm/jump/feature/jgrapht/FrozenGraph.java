@@ -0,0 +1,245 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+import org.jgrapht.Graph;
+
+/**
+ * Immutable, read-optimised snapshot of a graph built from a feature
+ * collection.
+ * <p>Vertices and edges are identified by int indices following the iteration
+ * order of the original graph. Adjacency is stored in primitive arrays, the
+ * adjacency list of each vertex being sorted by neighbour index. A snapshot is
+ * never modified after its creation : it can be shared by any number of
+ * threads without locking.</p>
+ * <p>Weight updates create a new snapshot sharing the topology of this one
+ * (see {@link #withEdgeWeights(Map)}) ; use a {@link FrozenGraphHolder} to
+ * publish new snapshots atomically while queries are running on older ones.</p>
+ * In an undirected snapshot, out-edges and in-edges of a vertex are the same
+ * and a loop appears twice in the adjacency list of its vertex, as in jgrapht
+ * degree computation.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class FrozenGraph<V,E> {
+
+    private final IntGraph<V,E> graph;
+    private final Map<E,Integer> edgeIndex;
+
+    private FrozenGraph(IntGraph<V,E> graph, Map<E,Integer> edgeIndex) {
+        this.graph = graph;
+        this.edgeIndex = edgeIndex;
+    }
+
+
+    /**
+     * Create an immutable snapshot of graph. The graph must not be modified
+     * while this method is running.
+     * @param graph the graph to freeze
+     * @return an immutable snapshot of graph
+     */
+    public static <V,E> FrozenGraph<V,E> freeze(Graph<V,E> graph) {
+        IntGraph<V,E> g = IntGraph.of(graph);
+        Map<E,Integer> edgeIndex = new HashMap<>(Math.max(16, (int)(g.edgeCount()/0.75f) + 1));
+        for (int e = 0 ; e < g.edgeCount() ; e++) edgeIndex.put(g.edge(e), e);
+        return new FrozenGraph<>(g, edgeIndex);
+    }
+
+
+    /**
+     * Returns the array based representation used by algorithms of this
+     * package.
+     */
+    IntGraph<V,E> intGraph() {
+        return graph;
+    }
+
+    public boolean isDirected() {
+        return graph.directed;
+    }
+
+    public int vertexCount() {
+        return graph.vertexCount();
+    }
+
+    public int edgeCount() {
+        return graph.edgeCount();
+    }
+
+    public boolean containsVertex(V v) {
+        return graph.vertexIndex.containsKey(v);
+    }
+
+    public boolean containsEdge(E e) {
+        return edgeIndex.containsKey(e);
+    }
+
+    /**
+     * Returns the index of vertex v, or -1 if this graph does not contain v.
+     */
+    public int indexOfVertex(V v) {
+        return graph.indexOf(v);
+    }
+
+    /**
+     * Returns the index of edge e, or -1 if this graph does not contain e.
+     */
+    public int indexOfEdge(E e) {
+        Integer i = edgeIndex.get(e);
+        return i == null ? -1 : i;
+    }
+
+    public V getVertex(int v) {
+        return graph.vertex(v);
+    }
+
+    public E getEdge(int e) {
+        return graph.edge(e);
+    }
+
+    public int getEdgeSource(int e) {
+        return graph.edgeSource[e];
+    }
+
+    public int getEdgeTarget(int e) {
+        return graph.edgeTarget[e];
+    }
+
+    public double getEdgeWeight(int e) {
+        return graph.weights[e];
+    }
+
+    public double getEdgeWeight(E e) {
+        Integer i = edgeIndex.get(e);
+        if (i == null) throw new IllegalArgumentException("no such edge in graph: " + e);
+        return graph.weights[i];
+    }
+
+    public int outDegreeOf(int v) {
+        return graph.outOffsets[v+1] - graph.outOffsets[v];
+    }
+
+    public int inDegreeOf(int v) {
+        return graph.inOffsets[v+1] - graph.inOffsets[v];
+    }
+
+    /**
+     * Returns the degree of vertex v, i.e. the number of incident edges.
+     */
+    public int degreeOf(int v) {
+        return graph.directed ? outDegreeOf(v) + inDegreeOf(v) : outDegreeOf(v);
+    }
+
+    /**
+     * Returns the k-th out-edge of vertex v (0 &lt;= k &lt; outDegreeOf(v)).
+     */
+    public int getOutEdge(int v, int k) {
+        return graph.outEdges[graph.outOffsets[v] + k];
+    }
+
+    /**
+     * Returns the target of the k-th out-edge of vertex v.
+     */
+    public int getOutNeighbour(int v, int k) {
+        return graph.outTargets[graph.outOffsets[v] + k];
+    }
+
+    /**
+     * Returns the k-th in-edge of vertex v (0 &lt;= k &lt; inDegreeOf(v)).
+     */
+    public int getInEdge(int v, int k) {
+        return graph.inEdges[graph.inOffsets[v] + k];
+    }
+
+    /**
+     * Returns the source of the k-th in-edge of vertex v.
+     */
+    public int getInNeighbour(int v, int k) {
+        return graph.inSources[graph.inOffsets[v] + k];
+    }
+
+    /**
+     * Returns true if an edge goes from vertex source to vertex target (in any
+     * direction if the graph is undirected). Adjacency lists being sorted,
+     * this is a binary search.
+     */
+    public boolean containsEdge(int source, int target) {
+        return Arrays.binarySearch(graph.outTargets,
+                graph.outOffsets[source], graph.outOffsets[source+1], target) >= 0;
+    }
+
+    /**
+     * Returns the out-edges of vertex v.
+     */
+    public List<E> outgoingEdgesOf(V v) {
+        int i = indexOf(v);
+        List<E> list = new ArrayList<>(outDegreeOf(i));
+        for (int k = graph.outOffsets[i] ; k < graph.outOffsets[i+1] ; k++) {
+            list.add(graph.edge(graph.outEdges[k]));
+        }
+        return list;
+    }
+
+    /**
+     * Returns the in-edges of vertex v.
+     */
+    public List<E> incomingEdgesOf(V v) {
+        int i = indexOf(v);
+        List<E> list = new ArrayList<>(inDegreeOf(i));
+        for (int k = graph.inOffsets[i] ; k < graph.inOffsets[i+1] ; k++) {
+            list.add(graph.edge(graph.inEdges[k]));
+        }
+        return list;
+    }
+
+    private int indexOf(V v) {
+        int i = graph.indexOf(v);
+        if (i < 0) throw new IllegalArgumentException("no such vertex in graph: " + v);
+        return i;
+    }
+
+
+    /**
+     * Returns a new snapshot sharing the topology of this one, where the
+     * weights of the edges contained in weights are replaced.
+     * This snapshot is not modified.
+     * @param weights new weights of some edges
+     */
+    public FrozenGraph<V,E> withEdgeWeights(Map<E,Double> weights) {
+        double[] array = graph.weights.clone();
+        for (Map.Entry<E,Double> entry : weights.entrySet()) {
+            Integer i = edgeIndex.get(entry.getKey());
+            if (i == null) throw new IllegalArgumentException("no such edge in graph: " + entry.getKey());
+            array[i] = entry.getValue();
+        }
+        return new FrozenGraph<>(graph.withWeights(array), edgeIndex);
+    }
+
+    /**
+     * Returns a new snapshot sharing the topology of this one, where the
+     * weight of each edge is computed by weight function.
+     * This snapshot is not modified.
+     * @param weight function computing the new weight of an edge
+     */
+    public FrozenGraph<V,E> withEdgeWeights(ToDoubleFunction<E> weight) {
+        double[] array = new double[graph.edgeCount()];
+        for (int e = 0 ; e < array.length ; e++) array[e] = weight.applyAsDouble(graph.edge(e));
+        return new FrozenGraph<>(graph.withWeights(array), edgeIndex);
+    }
+
+    /**
+     * Returns true if other has been derived from the same frozen topology as
+     * this snapshot (weights may differ).
+     */
+    public boolean hasSameTopology(FrozenGraph<?,?> other) {
+        return edgeIndex == other.edgeIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenGraph (" + (isDirected() ? "directed" : "undirected") + ") : " +
+                vertexCount() + " vertices, " + edgeCount() + " edges";
+    }
+
+}
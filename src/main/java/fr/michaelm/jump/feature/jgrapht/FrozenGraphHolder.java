@@ -0,0 +1,60 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Holds the current snapshot of a graph used by concurrent queries.
+ * <p>A query reads the current snapshot once with {@link #get()} and runs
+ * entirely on it. Weight updates build a new snapshot and swap it atomically,
+ * so that a running query never sees a partially updated graph, and readers
+ * never wait for writers.</p>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class FrozenGraphHolder<V,E> {
+
+    private final AtomicReference<FrozenGraph<V,E>> current;
+
+    public FrozenGraphHolder(FrozenGraph<V,E> graph) {
+        this.current = new AtomicReference<>(graph);
+    }
+
+    /**
+     * Returns the current snapshot.
+     */
+    public FrozenGraph<V,E> get() {
+        return current.get();
+    }
+
+    /**
+     * Replaces the current snapshot.
+     * @param graph the new snapshot
+     */
+    public void set(FrozenGraph<V,E> graph) {
+        current.set(graph);
+    }
+
+    /**
+     * Atomically replaces the current snapshot by a snapshot where the weights
+     * of the edges contained in weights are updated. Concurrent updates are
+     * all applied, in an unspecified order.
+     * @param weights new weights of some edges
+     * @return the new snapshot
+     */
+    public FrozenGraph<V,E> updateEdgeWeights(Map<E,Double> weights) {
+        return current.updateAndGet(g -> g.withEdgeWeights(weights));
+    }
+
+    /**
+     * Atomically replaces the current snapshot by a snapshot where the weight
+     * of each edge is computed by weight function.
+     * @param weight function computing the new weight of an edge
+     * @return the new snapshot
+     */
+    public FrozenGraph<V,E> updateEdgeWeights(ToDoubleFunction<E> weight) {
+        return current.updateAndGet(g -> g.withEdgeWeights(weight));
+    }
+
+}
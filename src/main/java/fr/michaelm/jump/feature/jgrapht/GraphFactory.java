@@ -1,6 +1,10 @@
 package fr.michaelm.jump.feature.jgrapht;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import org.jgrapht.Graph;
 import org.jgrapht.graph.*;
@@ -10,19 +14,41 @@ import com.vividsolutions.jump.feature.Feature;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.index.strtree.ItemDistance;
 import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.triangulate.DelaunayTriangulationBuilder;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
 
 
 /**
  * This utility class offers static methods to build graphs from feature
  * collections.
+ * All builders report their timings and counts to the listeners registered in
+ * {@link GraphMetrics}.
+ * Main builders also exist in a cancellable version, accepting a
+ * CancellationToken and a ProgressListener, and in an async version returning
+ * a CompletableFuture.
  * @author Michael Michaud
+ * @version 1.1 (2026-10-19)
  * @version 1.0 (2021-03-30) for OpenJUMP 2
  * @version 0.7.1 (2017-03-14)
  */
 public class GraphFactory {
 
-    private static long id = 0L;
+    // builders may run concurrently (see the async variants)
+    private static final AtomicLong id = new AtomicLong();
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    /**
+     * Distance between two FeatureAsNode stored in a STRtree.
+     */
+    private static final ItemDistance FEATURE_DISTANCE = (item1, item2) ->
+            ((FeatureAsNode)item1.getItem()).getGeometry().distance(
+                    ((FeatureAsNode)item2.getItem()).getGeometry());
 
     /**
      * Relation used to connect features.
@@ -43,6 +69,26 @@ public class GraphFactory {
         ISWITHIN
     }
 
+    /**
+     * Proximity graphs derived from the Delaunay triangulation of the
+     * interior points of the features.
+     */
+    private enum Proximity
+    {
+        /**
+         * All the edges of the Delaunay triangulation.
+         */
+        DELAUNAY,
+        /**
+         * Delaunay edges whose diametral circle contains no other site.
+         */
+        GABRIEL,
+        /**
+         * Delaunay edges whose lune contains no other site.
+         */
+        RELATIVE_NEIGHBOURHOOD
+    }
+
 
     /**
      * Create a WeightedPseudograph from a collection of features.
@@ -68,9 +114,51 @@ public class GraphFactory {
     */
     public static WeightedPseudograph<INode,FeatureAsEdge>
         createUndirectedGraph(Collection<Feature> features, boolean dim3) {
+        return createUndirectedGraph(features, dim3, null, null);
+    }
+
+
+   /**
+    * Create a WeightedPseudograph from a collection of features.
+    * The cancellation token is checked and the progress is reported once per
+    * chunk of features.
+    * @param features a collection of features.
+    * @param dim3 true means that nodes are evaluated equals when x,y,z are equals
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a WeightedPseudograph
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static WeightedPseudograph<INode,FeatureAsEdge>
+        createUndirectedGraph(Collection<Feature> features, boolean dim3,
+                              CancellationToken token, ProgressListener progress) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createUndirectedGraph");
         WeightedPseudograph<INode,FeatureAsEdge> graph =
                 new WeightedPseudograph<>(FeatureAsEdge.class);
-        return (WeightedPseudograph<INode,FeatureAsEdge>)add(graph, features, dim3);
+        add(graph, features, dim3, recorder, Monitor.of(token, progress));
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph from a collection of features on executor.
+    * Executor may be a thread pool or, on recent JDKs, a virtual thread per
+    * task executor. Cancelling the returned future cancels the token.
+    * @param features a collection of features.
+    * @param dim3 true means that nodes are evaluated equals when x,y,z are equals
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a CompletableFuture of a WeightedPseudograph, cancelled if the
+    * operation is cancelled
+    */
+    public static CompletableFuture<WeightedPseudograph<INode,FeatureAsEdge>>
+        createUndirectedGraphAsync(Collection<Feature> features, boolean dim3, Executor executor,
+                                   CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createUndirectedGraph(features, dim3, cancellable, progress),
+                executor, cancellable);
     }
 
 
@@ -97,9 +185,50 @@ public class GraphFactory {
      */
     public static DirectedWeightedPseudograph<INode,FeatureAsEdge>
             createDirectedGraph(Collection<Feature> features, boolean dim3) {
+        return createDirectedGraph(features, dim3, null, null);
+    }
+
+
+    /**
+     * Create a DirectedWeightedPseudograph from a collection of features
+     * The cancellation token is checked and the progress is reported once per
+     * chunk of features.
+     * @param features a collection of features.
+     * @param dim3 true means that nodes are evaluated equals when x,y,z are equals
+     * @param token token used to cancel the operation (may be null)
+     * @param progress listener receiving the progress of the operation (may be null)
+     * @return a DirectedWeightedPseudograph
+     * @throws java.util.concurrent.CancellationException if token is cancelled
+     */
+    public static DirectedWeightedPseudograph<INode,FeatureAsEdge>
+            createDirectedGraph(Collection<Feature> features, boolean dim3,
+                                CancellationToken token, ProgressListener progress) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createDirectedGraph");
         DirectedWeightedPseudograph<INode,FeatureAsEdge> graph =
                 new DirectedWeightedPseudograph(FeatureAsEdge.class);
-        return (DirectedWeightedPseudograph<INode,FeatureAsEdge>)add(graph, features, dim3);
+        add(graph, features, dim3, recorder, Monitor.of(token, progress));
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+    /**
+     * Create a DirectedWeightedPseudograph from a collection of features on
+     * executor. Cancelling the returned future cancels the token.
+     * @param features a collection of features.
+     * @param dim3 true means that nodes are evaluated equals when x,y,z are equals
+     * @param executor the executor running the operation
+     * @param token token used to cancel the operation (may be null)
+     * @param progress listener receiving the progress of the operation (may be null)
+     * @return a CompletableFuture of a DirectedWeightedPseudograph, cancelled
+     * if the operation is cancelled
+     */
+    public static CompletableFuture<DirectedWeightedPseudograph<INode,FeatureAsEdge>>
+            createDirectedGraphAsync(Collection<Feature> features, boolean dim3, Executor executor,
+                                     CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createDirectedGraph(features, dim3, cancellable, progress),
+                executor, cancellable);
     }
 
 
@@ -113,9 +242,82 @@ public class GraphFactory {
     public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
             Collection<Feature> features,
             Relation relation) {
+        return createGraph(features, relation, FeatureAsNode.KeyMode.GEOMETRY);
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features
+    * and a spatial Relation.
+    * With KeyMode.IDENTITY or KeyMode.FEATURE_ID, features with equal
+    * geometries are kept as distinct vertices and vertex lookups do not
+    * compare geometries.
+    * @param features a collection of features.
+    * @param relation the relation defining edges
+    * @param keyMode semantics of vertex equality
+    * @return a WeightedPseudograph with Features as nodes and relation as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
+            Collection<Feature> features,
+            Relation relation,
+            FeatureAsNode.KeyMode keyMode) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createGraph." + relation);
         WeightedPseudograph<FeatureAsNode,Long> graph =
                 new WeightedPseudograph<FeatureAsNode,Long>(Long.class);
-        return add(graph, features, relation, 0);
+        add(graph, features, relation, 0, keyMode, recorder, Monitor.NONE);
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features
+    * and a spatial Relation.
+    * The cancellation token is checked and the progress is reported once per
+    * chunk of features.
+    * @param features a collection of features.
+    * @param relation the relation defining edges
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a WeightedPseudograph with Features as nodes and relation as edges
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
+            Collection<Feature> features,
+            Relation relation,
+            CancellationToken token,
+            ProgressListener progress) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createGraph." + relation);
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<>(Long.class);
+        add(graph, features, relation, 0, FeatureAsNode.KeyMode.GEOMETRY,
+                recorder, Monitor.of(token, progress));
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features
+    * and a spatial Relation on executor.
+    * Cancelling the returned future cancels the token.
+    * @param features a collection of features.
+    * @param relation the relation defining edges
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a CompletableFuture of a WeightedPseudograph, cancelled if the
+    * operation is cancelled
+    */
+    public static CompletableFuture<WeightedPseudograph<FeatureAsNode,Long>> createGraphAsync(
+            Collection<Feature> features,
+            Relation relation,
+            Executor executor,
+            CancellationToken token,
+            ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createGraph(features, relation, cancellable, progress),
+                executor, cancellable);
     }
 
 
@@ -129,30 +331,247 @@ public class GraphFactory {
     public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
             Collection<Feature> features,
             double maxDist) {
+        return createGraph(features, maxDist, null, null);
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Features are connected if their distance is <= maxdist
+    * @param features a collection of features
+    * @param maxDist the maximum distance to consider two features as connected
+    * @param keyMode semantics of vertex equality
+    * @return a WeightedPseudograph with Features as nodes and relation as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
+            Collection<Feature> features,
+            double maxDist,
+            FeatureAsNode.KeyMode keyMode) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createGraph." + Relation.ISWITHIN);
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<FeatureAsNode,Long>(Long.class);
+        add(graph, features, Relation.ISWITHIN, maxDist, keyMode, recorder, Monitor.NONE);
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Features are connected if their distance is <= maxdist
+    * The cancellation token is checked and the progress is reported once per
+    * chunk of features.
+    * @param features a collection of features
+    * @param maxDist the maximum distance to consider two features as connected
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a WeightedPseudograph with Features as nodes and relation as edges
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createGraph(
+            Collection<Feature> features,
+            double maxDist,
+            CancellationToken token,
+            ProgressListener progress) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createGraph." + Relation.ISWITHIN);
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<>(Long.class);
+        add(graph, features, Relation.ISWITHIN, maxDist, FeatureAsNode.KeyMode.GEOMETRY,
+                recorder, Monitor.of(token, progress));
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features
+    * on executor. Features are connected if their distance is <= maxdist.
+    * Cancelling the returned future cancels the token.
+    * @param features a collection of features
+    * @param maxDist the maximum distance to consider two features as connected
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @return a CompletableFuture of a WeightedPseudograph, cancelled if the
+    * operation is cancelled
+    */
+    public static CompletableFuture<WeightedPseudograph<FeatureAsNode,Long>> createGraphAsync(
+            Collection<Feature> features,
+            double maxDist,
+            Executor executor,
+            CancellationToken token,
+            ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createGraph(features, maxDist, cancellable, progress),
+                executor, cancellable);
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Each feature is connected to its k nearest neighbours, so that the number
+    * of edges is at most k times the number of features, whatever the density
+    * of the dataset. Nearest neighbours are searched in parallel. Features
+    * having equal geometries form a single node (the first one is kept).
+    * @param features a collection of features
+    * @param k the number of neighbours to connect to each feature
+    * @return a WeightedPseudograph with Features as nodes and proximity as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createKNearestNeighbourGraph(
+            Collection<Feature> features,
+            int k) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createKNearestNeighbourGraph");
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<>(Long.class);
+        final List<FeatureAsNode> featureAsNodes = new ArrayList<>();
+        final STRtree index = new STRtree();
+        long time = recorder.start();
+        long skipped = 0;
+        for (Feature feature : features) {
+            FeatureAsNode f = new FeatureAsNode(feature);
+            if (f.getGeometry().isEmpty()) {
+                skipped++;
+                continue;
+            }
+            // features with equal geometries are a single vertex
+            if (!graph.addVertex(f)) continue;
+            index.insert(f.getEnvelope(), f);
+            featureAsNodes.add(f);
+        }
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.add(Counter.SKIPPED_EMPTY_GEOMETRIES, skipped);
+        if (k < 1 || featureAsNodes.size() < 2) {
+            recorder.finish(graph);
+            return graph;
+        }
+        index.build();
+        time = recorder.lap(Phase.INDEX_BUILD, time);
+        // query k+1 neighbours as the feature itself is part of the result
+        final int size = Math.min(k + 1, featureAsNodes.size());
+        final Object[][] neighbours = new Object[featureAsNodes.size()][];
+        IntStream.range(0, featureAsNodes.size()).parallel().forEach(i -> {
+            FeatureAsNode f = featureAsNodes.get(i);
+            neighbours[i] = index.nearestNeighbour(
+                    f.getEnvelope(), f, FEATURE_DISTANCE, size);
+        });
+        time = recorder.lap(Phase.INDEX_QUERY, time);
+        long candidates = 0;
+        for (int i = 0 ; i < neighbours.length ; i++) {
+            final FeatureAsNode f = featureAsNodes.get(i);
+            // STRtree does not return the k nearest neighbours in distance order
+            List<FeatureAsNode> list = new ArrayList<>(neighbours[i].length);
+            for (Object o : neighbours[i]) {
+                if (!f.equals(o)) list.add((FeatureAsNode)o);
+            }
+            candidates += list.size();
+            list.sort(Comparator.comparingDouble(c -> f.getGeometry().distance(c.getGeometry())));
+            for (FeatureAsNode candidate : list.subList(0, Math.min(k, list.size()))) {
+                if (graph.containsEdge(candidate, f)) continue;
+                graph.addEdge(f, candidate, id.incrementAndGet());
+                graph.setEdgeWeight(f, candidate, f.getGeometry().distance(candidate.getGeometry()));
+            }
+        }
+        recorder.stop(Phase.GRAPH_INSERTION, time);
+        recorder.add(Counter.CANDIDATE_PAIRS, candidates);
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Features are connected if the interior points of their geometries are
+    * connected in the Delaunay triangulation of all interior points.
+    * @param features a collection of features
+    * @return a WeightedPseudograph with Features as nodes and proximity as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createDelaunayGraph(
+            Collection<Feature> features) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createDelaunayGraph");
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<>(Long.class);
+        add(graph, features, Proximity.DELAUNAY, recorder);
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Features are connected if the circle having the segment joining their
+    * interior points as diameter does not contain any other interior point.
+    * The Gabriel graph is a subgraph of the Delaunay graph.
+    * @param features a collection of features
+    * @return a WeightedPseudograph with Features as nodes and proximity as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createGabrielGraph(
+            Collection<Feature> features) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createGabrielGraph");
         WeightedPseudograph<FeatureAsNode,Long> graph =
                 new WeightedPseudograph<>(Long.class);
-        return add(graph, features, Relation.ISWITHIN, maxDist);
+        add(graph, features, Proximity.GABRIEL, recorder);
+        recorder.finish(graph);
+        return graph;
+    }
+
+
+   /**
+    * Create a WeightedPseudograph (undirected) from a collection of features.
+    * Features a and b are connected if there is no other feature c whose
+    * interior point is closer to both a and b than a and b are to each other.
+    * The relative neighbourhood graph is a subgraph of the Gabriel graph and
+    * contains the euclidean minimum spanning tree.
+    * @param features a collection of features
+    * @return a WeightedPseudograph with Features as nodes and proximity as edges
+    */
+    public static WeightedPseudograph<FeatureAsNode,Long> createRelativeNeighbourhoodGraph(
+            Collection<Feature> features) {
+        Recorder recorder = GraphMetrics.recorder("GraphFactory.createRelativeNeighbourhoodGraph");
+        WeightedPseudograph<FeatureAsNode,Long> graph =
+                new WeightedPseudograph<>(Long.class);
+        add(graph, features, Proximity.RELATIVE_NEIGHBOURHOOD, recorder);
+        recorder.finish(graph);
+        return graph;
     }
 
 
     private static Graph<INode,FeatureAsEdge> add(
             Graph<INode,FeatureAsEdge> graph,
             Collection<Feature> features,
-            boolean dim3) {
+            boolean dim3,
+            Recorder recorder,
+            Monitor monitor) {
         Coordinate[] cc;
+        long skipped = 0;
+        long done = 0;
+        int total = features.size();
         for (Feature f : features) {
+            monitor.worked(done++, total);
+            long time = recorder.start();
             Geometry g = f.getGeometry();
-            if (g.isEmpty()) continue;
+            if (g.isEmpty()) {
+                skipped++;
+                continue;
+            }
             cc = f.getGeometry().getCoordinates();
+            double length = g.getLength();
+            time = recorder.lap(Phase.GEOMETRY_ACCESS, time);
             INode node1 = dim3? new Node3D(cc[0]) : new Node2D(cc[0]);
             graph.addVertex(node1);
-            if (g.getDimension() == 0) continue;
+            if (g.getDimension() == 0) {
+                recorder.stop(Phase.GRAPH_INSERTION, time);
+                continue;
+            }
             INode node2 = dim3? new Node3D(cc[cc.length-1]) : new Node2D(cc[cc.length-1]);
             graph.addVertex(node2);
             FeatureAsEdge edge = new FeatureAsEdge(f);
             graph.addEdge(node1, node2, edge);
-            graph.setEdgeWeight(edge, g.getLength());
+            graph.setEdgeWeight(edge, length);
+            recorder.stop(Phase.GRAPH_INSERTION, time);
         }
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.add(Counter.SKIPPED_EMPTY_GEOMETRIES, skipped);
+        monitor.done(total);
         return graph;
     }
 
@@ -165,62 +584,211 @@ public class GraphFactory {
      * @param features features to add to be added to the graph
      * @param relation relation determining if two features are connected or not
      * @param maxDist max distance to connect features in the case of Relation.ISWITHIN
+     * @param keyMode semantics of vertex equality
+     * @param recorder recorder of the operation metrics
+     * @param monitor cancellation and progress monitor
      * @return a WeightedPseudograph
      */
     private static WeightedPseudograph<FeatureAsNode,Long> add(
             WeightedPseudograph<FeatureAsNode,Long> graph,
             Collection<Feature> features,
             Relation relation,
-            double maxDist) {
+            double maxDist,
+            FeatureAsNode.KeyMode keyMode,
+            Recorder recorder,
+            Monitor monitor) {
 
         Collection<FeatureAsNode> featureAsNodes = new ArrayList<>();
 
+        long time = recorder.start();
         STRtree index = new STRtree();
+        long done = 0;
         for (Feature feature : features) {
-            FeatureAsNode f = new FeatureAsNode(feature);
+            if ((++done & 1023) == 0) monitor.checkCancelled();
+            FeatureAsNode f = new FeatureAsNode(feature, keyMode);
             if (f.getGeometry().isEmpty()) continue;
-            index.insert(f.getGeometry().getEnvelopeInternal(), f);
+            index.insert(f.getEnvelope(), f);
             featureAsNodes.add(f);
         }
+        recorder.stop(Phase.INDEX_BUILD, time);
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.add(Counter.SKIPPED_EMPTY_GEOMETRIES, features.size() - featureAsNodes.size());
 
+        long candidates = 0;
+        long hits = 0;
+        done = 0;
+        int total = featureAsNodes.size();
         for (FeatureAsNode f : featureAsNodes) {
+            monitor.worked(done++, total);
             if (f.getGeometry().isEmpty()) continue;
-            Envelope env = f.getGeometry().getEnvelopeInternal();
+            time = recorder.start();
+            Envelope env = new Envelope(f.getEnvelope());
             env.expandBy(maxDist);
             List<FeatureAsNode> list = (List<FeatureAsNode>)index.query(env);
+            time = recorder.lap(Phase.INDEX_QUERY, time);
             boolean isolated = true;
             for (FeatureAsNode candidate : list) {
                 if (candidate == f) continue;
                 if (graph.containsEdge(candidate, f)) continue;
+                candidates++;
                 if (relation==Relation.INTERSECTS &&
                     f.getGeometry().intersects(candidate.getGeometry())) {
+                    time = recorder.lap(Phase.PREDICATE, time);
                     graph.addVertex(f);
                     graph.addVertex(candidate);
-                    graph.addEdge(f, candidate, ++id);
+                    graph.addEdge(f, candidate, id.incrementAndGet());
                     isolated = false;
+                    hits++;
                 }
                 else if (relation==Relation.TOUCHES &&
                     f.getGeometry().touches(candidate.getGeometry())) {
+                    time = recorder.lap(Phase.PREDICATE, time);
                     graph.addVertex(f);
                     graph.addVertex(candidate);
-                    graph.addEdge(f, candidate, ++id);
+                    graph.addEdge(f, candidate, id.incrementAndGet());
                     isolated = false;
+                    hits++;
                 }
                 else if (relation==Relation.ISWITHIN &&
                     f.getGeometry().distance(candidate.getGeometry())<=maxDist) {
+                    time = recorder.lap(Phase.PREDICATE, time);
                     graph.addVertex(f);
                     graph.addVertex(candidate);
-                    graph.addEdge(f, candidate, ++id);
+                    graph.addEdge(f, candidate, id.incrementAndGet());
                     graph.setEdgeWeight(f, candidate, f.getGeometry().distance(candidate.getGeometry()));
                     isolated = false;
+                    hits++;
                 }
+                else {
+                    time = recorder.lap(Phase.PREDICATE, time);
+                    continue;
+                }
+                time = recorder.lap(Phase.GRAPH_INSERTION, time);
             }
             if (isolated) graph.addVertex(f);
+            recorder.stop(Phase.GRAPH_INSERTION, time);
+        }
+        recorder.add(Counter.CANDIDATE_PAIRS, candidates);
+        recorder.add(Counter.PREDICATE_HITS, hits);
+        monitor.done(total);
+        return graph;
+    }
+
+
+    /**
+     * Add features to a weighted pseudograph (undirected).
+     * Features are connected according to a proximity graph computed from the
+     * Delaunay triangulation of their interior points. Features sharing the
+     * same interior point are connected to the first one found.
+     * @param graph the graph to populate
+     * @param features features to add to be added to the graph
+     * @param proximity the proximity graph defining edges
+     * @param recorder recorder of the operation metrics
+     * @return a WeightedPseudograph
+     */
+    private static WeightedPseudograph<FeatureAsNode,Long> add(
+            WeightedPseudograph<FeatureAsNode,Long> graph,
+            Collection<Feature> features,
+            Proximity proximity,
+            Recorder recorder) {
+
+        long time = recorder.start();
+        Map<Coordinate,FeatureAsNode> sites = new HashMap<>();
+        long skipped = 0;
+        STRtree index = new STRtree();
+        for (Feature feature : features) {
+            FeatureAsNode f = new FeatureAsNode(feature);
+            if (f.getGeometry().isEmpty()) {
+                skipped++;
+                continue;
+            }
+            graph.addVertex(f);
+            Coordinate c = f.getCoordinate();
+            FeatureAsNode site = sites.get(c);
+            if (site == null) {
+                sites.put(c, f);
+                index.insert(new Envelope(c), c);
+            } else if (!graph.containsEdge(site, f)) {
+                graph.addEdge(site, f, id.incrementAndGet());
+                graph.setEdgeWeight(site, f, site.getGeometry().distance(f.getGeometry()));
+            }
+        }
+        time = recorder.lap(Phase.INDEX_BUILD, time);
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.add(Counter.SKIPPED_EMPTY_GEOMETRIES, skipped);
+        if (sites.size() < 2) return graph;
+
+        List<Coordinate[]> segments = new ArrayList<>();
+        if (sites.size() == 2) {
+            segments.add(sites.keySet().toArray(new Coordinate[0]));
+        } else {
+            DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+            builder.setSites(sites.keySet());
+            Geometry edges = builder.getEdges(FACTORY);
+            for (int i = 0 ; i < edges.getNumGeometries() ; i++) {
+                segments.add(edges.getGeometryN(i).getCoordinates());
+            }
         }
+        time = recorder.lap(Phase.ALGORITHM, time);
+
+        long hits = 0;
+        for (Coordinate[] segment : segments) {
+            Coordinate c0 = segment[0];
+            Coordinate c1 = segment[segment.length-1];
+            if (proximity == Proximity.GABRIEL && !isGabrielEdge(index, c0, c1)) continue;
+            if (proximity == Proximity.RELATIVE_NEIGHBOURHOOD &&
+                    !isRelativeNeighbourhoodEdge(index, c0, c1)) continue;
+            hits++;
+            FeatureAsNode f0 = sites.get(c0);
+            FeatureAsNode f1 = sites.get(c1);
+            if (f0 == null || f1 == null || graph.containsEdge(f0, f1)) continue;
+            graph.addEdge(f0, f1, id.incrementAndGet());
+            graph.setEdgeWeight(f0, f1, f0.getGeometry().distance(f1.getGeometry()));
+        }
+        recorder.stop(Phase.PREDICATE, time);
+        recorder.add(Counter.CANDIDATE_PAIRS, segments.size());
+        recorder.add(Counter.PREDICATE_HITS, hits);
         return graph;
     }
 
 
+    /**
+     * Returns true if no site of the index lies strictly inside the circle
+     * having c0-c1 as diameter.
+     */
+    private static boolean isGabrielEdge(STRtree index, Coordinate c0, Coordinate c1) {
+        Coordinate center = new Coordinate((c0.x + c1.x) / 2, (c0.y + c1.y) / 2);
+        double radius = c0.distance(c1) / 2;
+        Envelope env = new Envelope(center);
+        env.expandBy(radius);
+        for (Object o : index.query(env)) {
+            Coordinate c = (Coordinate)o;
+            if (c.equals2D(c0) || c.equals2D(c1)) continue;
+            if (center.distance(c) < radius) return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns true if no site of the index is closer to both c0 and c1 than
+     * c0 and c1 are to each other.
+     */
+    private static boolean isRelativeNeighbourhoodEdge(STRtree index, Coordinate c0, Coordinate c1) {
+        double length = c0.distance(c1);
+        Envelope env0 = new Envelope(c0);
+        env0.expandBy(length);
+        Envelope env1 = new Envelope(c1);
+        env1.expandBy(length);
+        for (Object o : index.query(env0.intersection(env1))) {
+            Coordinate c = (Coordinate)o;
+            if (c.equals2D(c0) || c.equals2D(c1)) continue;
+            if (Math.max(c0.distance(c), c1.distance(c)) < length) return false;
+        }
+        return true;
+    }
+
+
     /**
      * Add features to a directed weighted pseudograph
      * @param graph the DirectedWeightedPseudograph to add Features to
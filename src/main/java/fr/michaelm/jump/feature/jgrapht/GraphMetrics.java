@@ -0,0 +1,59 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the listeners receiving metrics of GraphFactory and GraphUtil
+ * operations.
+ * <p>Metrics are only recorded while at least one listener is registered.
+ * Otherwise, operations use a no-op recorder which does not even read the
+ * clock.</p>
+ * A Java Flight Recorder listener (JfrGraphMetricsListener) is compiled from
+ * src/jfr/java when the build runs on a JDK providing jdk.jfr (jfr profile).
+ * @see MicrometerGraphMetricsListener
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class GraphMetrics {
+
+    private static final List<GraphMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private GraphMetrics() {}
+
+    /**
+     * Registers a listener.
+     */
+    public static void addListener(GraphMetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     */
+    public static void removeListener(GraphMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Returns true if metrics are recorded.
+     */
+    public static boolean isEnabled() {
+        return !LISTENERS.isEmpty();
+    }
+
+    /**
+     * Returns a recorder for a new operation, or a no-op recorder if no
+     * listener is registered.
+     */
+    static Recorder recorder(String operation) {
+        return LISTENERS.isEmpty() ? Recorder.NONE : new Recorder(operation);
+    }
+
+    static void fire(GraphOperationStats stats) {
+        for (GraphMetricsListener listener : LISTENERS) {
+            listener.operationCompleted(stats);
+        }
+    }
+
+}
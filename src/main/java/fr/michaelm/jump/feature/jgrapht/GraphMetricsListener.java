@@ -0,0 +1,18 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+/**
+ * Listener notified at the end of each instrumented operation.
+ * Listeners are called by the thread running the operation.
+ * @see GraphMetrics#addListener(GraphMetricsListener)
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public interface GraphMetricsListener {
+
+    /**
+     * Called when an operation is completed.
+     * @param stats the timings and counts recorded during the operation
+     */
+    void operationCompleted(GraphOperationStats stats);
+
+}
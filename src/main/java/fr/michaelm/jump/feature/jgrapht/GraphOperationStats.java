@@ -0,0 +1,113 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Timings and counts recorded during a GraphFactory or GraphUtil operation
+ * while metrics are enabled (see {@link GraphMetrics}).
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class GraphOperationStats {
+
+    /**
+     * Phases of an operation. Time is accumulated per phase, so that the
+     * sum of phases may be less than the total time of the operation.
+     */
+    public enum Phase {
+        /**
+         * Access to feature geometries and coordinates.
+         */
+        GEOMETRY_ACCESS,
+        /**
+         * Creation of the spatial index.
+         */
+        INDEX_BUILD,
+        /**
+         * Spatial index queries.
+         */
+        INDEX_QUERY,
+        /**
+         * Evaluation of spatial predicates and distances between candidates.
+         */
+        PREDICATE,
+        /**
+         * Insertion of vertices and edges into the jgrapht graph.
+         */
+        GRAPH_INSERTION,
+        /**
+         * Graph algorithm (connectivity, triangulation...).
+         */
+        ALGORITHM
+    }
+
+    /**
+     * Counts recorded during an operation.
+     */
+    public enum Counter {
+        FEATURES,
+        NODES,
+        EDGES,
+        CANDIDATE_PAIRS,
+        PREDICATE_HITS,
+        SKIPPED_EMPTY_GEOMETRIES
+    }
+
+    private final String operation;
+    private final long totalNanos;
+    private final Map<Phase,Long> phaseNanos;
+    private final Map<Counter,Long> counts;
+    private final long estimatedHeapBytes;
+
+    GraphOperationStats(String operation, long totalNanos,
+                        long[] phaseNanos, long[] counts, long estimatedHeapBytes) {
+        this.operation = operation;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) this.phaseNanos.put(phase, phaseNanos[phase.ordinal()]);
+        this.counts = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) this.counts.put(counter, counts[counter.ordinal()]);
+        this.estimatedHeapBytes = estimatedHeapBytes;
+    }
+
+    /**
+     * Returns the name of the operation (ex. GraphFactory.createUndirectedGraph).
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the wall-clock duration of the operation in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the time spent in phase in nanoseconds.
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.get(phase);
+    }
+
+    public long getCount(Counter counter) {
+        return counts.get(counter);
+    }
+
+    /**
+     * Returns a rough estimation of the heap used by the resulting graph,
+     * based on the average size of vertices and edges in jgrapht pseudographs.
+     */
+    public long getEstimatedHeapBytes() {
+        return estimatedHeapBytes;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " : " + (totalNanos / 1000000) + " ms " + phaseNanos + " " + counts +
+                " ~" + (estimatedHeapBytes / 1024) + " kB";
+    }
+
+}
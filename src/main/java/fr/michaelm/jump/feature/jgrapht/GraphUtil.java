@@ -1,21 +1,78 @@
 package fr.michaelm.jump.feature.jgrapht;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.vividsolutions.jump.feature.AttributeType;
+import com.vividsolutions.jump.feature.BasicFeature;
 import com.vividsolutions.jump.feature.Feature;
+import com.vividsolutions.jump.feature.FeatureCollection;
+import com.vividsolutions.jump.feature.FeatureSchema;
 import org.jgrapht.*;
 
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
 
 /**
  * Utility class to work with graphs built from feature collections.
+ * All methods report their timings and counts to the listeners registered in
+ * {@link GraphMetrics}. The graph build is reported once, by GraphFactory, and
+ * the GraphUtil operation only covers the analysis of the graph.
+ * Main analyses also exist in a cancellable version, accepting a
+ * CancellationToken and a ProgressListener, and in an async version returning
+ * a CompletableFuture. Progress is reported while the graph is built (in
+ * features), then while it is analysed (in nodes), and the token is checked
+ * during both phases.
+ * Node analyses can also be consumed as lazy Streams or written directly into
+ * a FeatureCollection using the node schema ({@link #createNodeSchema()}),
+ * without an intermediate list of results.
  * @author Michael Michaud
+ * @version 1.1 (2026-10-19)
  * @version 1.0 (2021-03-19) for OpenJUMP 2
  * @version 0.1 (2007-05-28)
  */
 public class GraphUtil {
-    
+
+    /**
+     * Type of a strongly connected component which cannot be left.
+     */
+    public static final String SINK = "SINK";
+
+    /**
+     * Type of a strongly connected component which cannot be reached.
+     */
+    public static final String SOURCE = "SOURCE";
+
+    /**
+     * Type of a strongly connected component which can neither be left nor
+     * reached.
+     */
+    public static final String ISOLATED = "ISOLATED";
+
+    /**
+     * Attribute of node features holding the identifier of the connected
+     * component of the node.
+     */
+    public static final String COMPONENT = "component";
+
+    /**
+     * Attribute of node features holding the number of nodes of the
+     * connected component of the node.
+     */
+    public static final String SIZE = "size";
+
+    /**
+     * Attribute of node features holding the degree of the node.
+     */
+    public static final String DEGREE = "degree";
     
    /**
     * Returns true if the graph formed by features is connected.
@@ -24,10 +81,52 @@ public class GraphUtil {
     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
     */
     public static boolean isGraphConnected(Collection<Feature> features, boolean directed, boolean dim3) {
-        Graph<INode,FeatureAsEdge> g = directed ?
-                GraphFactory.createDirectedGraph(features, dim3)
-                :GraphFactory.createUndirectedGraph(features, dim3);
-        return new ConnectivityInspector<>(g).isConnected();
+        return isGraphConnected(features, directed, dim3, null, null);
+    }
+
+   /**
+    * Returns true if the graph formed by features is connected.
+    * @param features the collection of features
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static boolean isGraphConnected(Collection<Feature> features, boolean directed, boolean dim3,
+                                           CancellationToken token, ProgressListener progress) {
+        Graph<INode,FeatureAsEdge> g = createGraph(features, directed, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.isGraphConnected");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        Components components = new Components(g, Monitor.of(token, progress));
+        // an empty graph is not connected (as in ConnectivityInspector)
+        boolean connected = components.hasNext();
+        if (connected) {
+            components.next();
+            connected = components.nodes.size() == g.vertexSet().size();
+        }
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(g);
+        return connected;
+    }
+
+   /**
+    * Returns a future which will be completed with true if the graph formed by
+    * features is connected. Cancelling the future cancels the token.
+    * @param features the collection of features
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<Boolean> isGraphConnectedAsync(
+            Collection<Feature> features, boolean directed, boolean dim3, Executor executor,
+            CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> isGraphConnected(features, directed, dim3, cancellable, progress),
+                executor, cancellable);
     }
     
    /**
@@ -37,10 +136,51 @@ public class GraphUtil {
     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
     */
     public static List<Set<INode>> createConnectedNodeSets(Collection<Feature> features, boolean directed, boolean dim3) {
-        Graph<INode,FeatureAsEdge> g = directed ?
-                GraphFactory.createDirectedGraph(features, dim3)
-                :GraphFactory.createUndirectedGraph(features, dim3);
-        return new ConnectivityInspector<>(g).connectedSets();
+        return createConnectedNodeSets(features, directed, dim3, null, null);
+    }
+
+   /**
+    * Returns a list of connected Set s of vertices.
+    * @param features the collection of features
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static List<Set<INode>> createConnectedNodeSets(Collection<Feature> features, boolean directed, boolean dim3,
+                                                           CancellationToken token, ProgressListener progress) {
+        Graph<INode,FeatureAsEdge> g = createGraph(features, directed, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.createConnectedNodeSets");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        Components components = new Components(g, Monitor.of(token, progress));
+        List<Set<INode>> sets = new ArrayList<>();
+        while (components.hasNext()) {
+            components.next();
+            sets.add(new HashSet<>(components.nodes));
+        }
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(g);
+        return sets;
+    }
+
+   /**
+    * Returns a future which will be completed with the list of connected Set s
+    * of vertices. Cancelling the future cancels the token.
+    * @param features the collection of features
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<List<Set<INode>>> createConnectedNodeSetsAsync(
+            Collection<Feature> features, boolean directed, boolean dim3, Executor executor,
+            CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createConnectedNodeSets(features, directed, dim3, cancellable, progress),
+                executor, cancellable);
     }
     
    /**
@@ -68,20 +208,649 @@ public class GraphUtil {
     public static List<Geometry> getVertices(Collection<Feature> features,
                                           int minDegree, int maxDegree,
                                           boolean directed, boolean dim3) {
+        return getVertices(features, minDegree, maxDegree, directed, dim3, null, null);
+    }
+
+    /**
+    * Returns vertices having a degree higher than min and lower than max as a list of
+    * geometries.
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static List<Geometry> getVertices(Collection<Feature> features,
+                                          int minDegree, int maxDegree,
+                                          boolean directed, boolean dim3,
+                                          CancellationToken token, ProgressListener progress) {
         assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
         assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
-        Graph<INode,FeatureAsEdge> g = directed ?
-                GraphFactory.createDirectedGraph(features, dim3)
-                :GraphFactory.createUndirectedGraph(features, dim3);
+        Graph<INode,FeatureAsEdge> g = createGraph(features, directed, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.getVertices");
+        recorder.add(Counter.FEATURES, features.size());
+        Monitor monitor = Monitor.of(token, progress);
+        long time = recorder.start();
         List<Geometry> geometries = new ArrayList<>();
+        long total = g.vertexSet().size();
+        long done = 0;
         for (INode node : g.vertexSet()) {
+            monitor.worked(done++, total);
             int degree = g.degreeOf(node);
             if (degree >= minDegree && degree <= maxDegree) {
                 geometries.add(node.getGeometry());
             }
         }
+        monitor.done(total);
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(g);
         return geometries;
     }
-    
-}
 
+    /**
+    * Returns a future which will be completed with the vertices having a
+    * degree higher than min and lower than max as a list of geometries.
+    * Cancelling the future cancels the token.
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<List<Geometry>> getVerticesAsync(
+            Collection<Feature> features, int minDegree, int maxDegree, boolean directed, boolean dim3,
+            Executor executor, CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(
+                () -> getVertices(features, minDegree, maxDegree, directed, dim3, cancellable, progress),
+                executor, cancellable);
+    }
+
+    /**
+    * Returns the coordinates of the vertices having a degree higher than min
+    * and lower than max as a single packed CoordinateSequence. Unlike
+    * getVertices, no Point is created : the sequence stores all coordinates
+    * in one array of doubles, and can be displayed or exported as a whole
+    * (ex. factory.createMultiPoint(sequence)).
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different
+    *             nodes (the sequence has a z dimension in this case)
+    */
+    public static CoordinateSequence getVertexCoordinates(Collection<Feature> features,
+                                          int minDegree, int maxDegree,
+                                          boolean directed, boolean dim3) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        Graph<INode,FeatureAsEdge> g = createGraph(features, directed, dim3, null, null);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.getVertexCoordinates");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        int dimension = dim3 ? 3 : 2;
+        double[] array = new double[g.vertexSet().size() * dimension];
+        int size = 0;
+        for (INode node : g.vertexSet()) {
+            int degree = g.degreeOf(node);
+            if (degree >= minDegree && degree <= maxDegree) {
+                Coordinate c = node.getCoordinate();
+                array[size++] = c.x;
+                array[size++] = c.y;
+                if (dim3) array[size++] = c.getZ();
+            }
+        }
+        CoordinateSequence sequence = new PackedCoordinateSequence.Double(
+                Arrays.copyOf(array, size), dimension, 0);
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(g);
+        return sequence;
+    }
+
+   /**
+    * Returns the schema of the node features produced by streamNodes and
+    * writeNodes : GEOMETRY, component (INTEGER), size (INTEGER) and degree
+    * (INTEGER).
+    */
+    public static FeatureSchema createNodeSchema() {
+        FeatureSchema schema = new FeatureSchema();
+        schema.addAttribute("GEOMETRY", AttributeType.GEOMETRY);
+        schema.addAttribute(COMPONENT, AttributeType.INTEGER);
+        schema.addAttribute(SIZE, AttributeType.INTEGER);
+        schema.addAttribute(DEGREE, AttributeType.INTEGER);
+        return schema;
+    }
+
+   /**
+    * Returns the connected Set s of vertices as a lazy Stream : each set is
+    * computed when the stream reaches it, so that only one component exists
+    * at a time if the consumer does not keep them.
+    * The graph is built when this method is called.
+    * @param features the collection of features
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    */
+    public static Stream<Set<INode>> streamConnectedNodeSets(Collection<Feature> features,
+                                                             boolean directed, boolean dim3) {
+        Graph<INode,FeatureAsEdge> graph = createGraph(features, directed, dim3, null, null);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.streamConnectedNodeSets");
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.finish(graph);
+        return connectedNodeSets(graph);
+    }
+
+   /**
+    * Returns the connected Set s of vertices of an existing graph as a lazy
+    * Stream. The graph is traversed while the stream is consumed and must not
+    * be modified meanwhile.
+    * @param graph the graph (edges of a directed graph are followed in both
+    *              directions)
+    */
+    public static Stream<Set<INode>> streamConnectedNodeSets(Graph<INode,FeatureAsEdge> graph) {
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.streamConnectedNodeSets");
+        recorder.finish(graph);
+        return connectedNodeSets(graph);
+    }
+
+    private static Stream<Set<INode>> connectedNodeSets(Graph<INode,FeatureAsEdge> graph) {
+        Components components = new Components(graph, Monitor.NONE);
+        return stream(new Iterator<Set<INode>>() {
+            @Override
+            public boolean hasNext() {
+                return components.hasNext();
+            }
+            @Override
+            public Set<INode> next() {
+                components.next();
+                return new HashSet<>(components.nodes);
+            }
+        });
+    }
+
+   /**
+    * Returns the geometries of the vertices having a degree higher than min
+    * and lower than max as a lazy Stream. Vertices are filtered while the
+    * stream is consumed.
+    * The graph is built when this method is called.
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    */
+    public static Stream<Geometry> streamVertices(Collection<Feature> features,
+                                          int minDegree, int maxDegree,
+                                          boolean directed, boolean dim3) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        Graph<INode,FeatureAsEdge> g = createGraph(features, directed, dim3, null, null);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.streamVertices");
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.finish(g);
+        return g.vertexSet().stream()
+                .filter(node -> {
+                    int degree = g.degreeOf(node);
+                    return degree >= minDegree && degree <= maxDegree;
+                })
+                .map(INode::getGeometry);
+    }
+
+   /**
+    * Returns the vertices having a degree higher than min and lower than max
+    * as a lazy Stream of node features, component after component. Each
+    * feature has the node geometry, the identifier of its connected component
+    * (components are numbered from 0 in the order they are reached), the
+    * size of this component and the degree of the node.
+    * All features share schema, which must contain the attributes of
+    * {@link #createNodeSchema()}.
+    * The graph is built when this method is called.
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param schema the schema of the features to create
+    * @throws IllegalArgumentException if schema misses one of the node attributes
+    */
+    public static Stream<Feature> streamNodes(Collection<Feature> features,
+                                          int minDegree, int maxDegree,
+                                          boolean directed, boolean dim3, FeatureSchema schema) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        checkNodeSchema(schema);
+        Graph<INode,FeatureAsEdge> graph = createGraph(features, directed, dim3, null, null);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.streamNodes");
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.finish(graph);
+        return stream(new NodeIterator(graph, minDegree, maxDegree, schema));
+    }
+
+   /**
+    * Returns the vertices of an existing graph having a degree higher than
+    * min and lower than max as a lazy Stream of node features (see
+    * {@link #streamNodes(Collection, int, int, boolean, boolean, FeatureSchema)}).
+    * The graph is traversed while the stream is consumed and must not be
+    * modified meanwhile.
+    * @param graph the graph (edges of a directed graph are followed in both
+    *              directions)
+    * @param minDegree the minimum degree of nodes to return (inclusive)
+    * @param maxDegree the maximum degree of nodes to return (inclusive)
+    * @param schema the schema of the features to create
+    * @throws IllegalArgumentException if schema misses one of the node attributes
+    */
+    public static Stream<Feature> streamNodes(Graph<INode,FeatureAsEdge> graph,
+                                          int minDegree, int maxDegree, FeatureSchema schema) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        checkNodeSchema(schema);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.streamNodes");
+        recorder.finish(graph);
+        return stream(new NodeIterator(graph, minDegree, maxDegree, schema));
+    }
+
+   /**
+    * Adds the vertices having a degree higher than min and lower than max to
+    * target, as node features created with the schema of target (see
+    * {@link #streamNodes(Collection, int, int, boolean, boolean, FeatureSchema)}).
+    * Features are added as soon as they are created.
+    * @param features the collection of features
+    * @param minDegree the minimum degree of nodes to add (inclusive)
+    * @param maxDegree the maximum degree of nodes to add (inclusive)
+    * @param directed wether the graph to build is directed or not
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param target the collection receiving the node features
+    * @return the number of features added to target
+    * @throws IllegalArgumentException if the schema of target misses one of
+    * the node attributes
+    */
+    public static int writeNodes(Collection<Feature> features,
+                                 int minDegree, int maxDegree,
+                                 boolean directed, boolean dim3, FeatureCollection target) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        checkNodeSchema(target.getFeatureSchema());
+        Graph<INode,FeatureAsEdge> graph = createGraph(features, directed, dim3, null, null);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.writeNodes");
+        recorder.add(Counter.FEATURES, features.size());
+        return writeNodes(graph, minDegree, maxDegree, target, recorder);
+    }
+
+   /**
+    * Adds the vertices of an existing graph having a degree higher than min
+    * and lower than max to target, as node features created with the schema
+    * of target (see
+    * {@link #streamNodes(Collection, int, int, boolean, boolean, FeatureSchema)}).
+    * Features are added as soon as they are created.
+    * @param graph the graph (edges of a directed graph are followed in both
+    *              directions)
+    * @param minDegree the minimum degree of nodes to add (inclusive)
+    * @param maxDegree the maximum degree of nodes to add (inclusive)
+    * @param target the collection receiving the node features
+    * @return the number of features added to target
+    * @throws IllegalArgumentException if the schema of target misses one of
+    * the node attributes
+    */
+    public static int writeNodes(Graph<INode,FeatureAsEdge> graph,
+                                 int minDegree, int maxDegree, FeatureCollection target) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        checkNodeSchema(target.getFeatureSchema());
+        return writeNodes(graph, minDegree, maxDegree, target, GraphMetrics.recorder("GraphUtil.writeNodes"));
+    }
+
+    private static int writeNodes(Graph<INode,FeatureAsEdge> graph, int minDegree, int maxDegree,
+                                  FeatureCollection target, Recorder recorder) {
+        long time = recorder.start();
+        NodeIterator it = new NodeIterator(graph, minDegree, maxDegree, target.getFeatureSchema());
+        int count = 0;
+        while (it.hasNext()) {
+            target.add(it.next());
+            count++;
+        }
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return count;
+    }
+
+    private static void checkNodeSchema(FeatureSchema schema) {
+        if (schema.getGeometryIndex() < 0) {
+            throw new IllegalArgumentException("node schema must have a geometry attribute");
+        }
+        for (String name : new String[]{COMPONENT, SIZE, DEGREE}) {
+            if (!schema.hasAttribute(name)) {
+                throw new IllegalArgumentException("node schema must have a " + name + " attribute");
+            }
+        }
+    }
+
+    private static <T> Stream<T> stream(Iterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+   /**
+    * Returns true if the directed graph formed by features is strongly
+    * connected, i.e. if every node can be reached from every other node.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    */
+    public static boolean isGraphStronglyConnected(Collection<Feature> features, boolean dim3) {
+        return isGraphStronglyConnected(features, dim3, null, null);
+    }
+
+   /**
+    * Returns true if the directed graph formed by features is strongly
+    * connected, i.e. if every node can be reached from every other node.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static boolean isGraphStronglyConnected(Collection<Feature> features, boolean dim3,
+                                                   CancellationToken token, ProgressListener progress) {
+        Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(features, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.isGraphStronglyConnected");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        IntGraph<INode,FeatureAsEdge> g = IntGraph.of(graph);
+        boolean connected = StrongConnectivity.count(
+                StrongConnectivity.components(g, Monitor.of(token, null))) <= 1;
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return connected;
+    }
+
+   /**
+    * Returns a future which will be completed with true if the directed graph
+    * formed by features is strongly connected. Cancelling the future cancels
+    * the token.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<Boolean> isGraphStronglyConnectedAsync(
+            Collection<Feature> features, boolean dim3, Executor executor,
+            CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> isGraphStronglyConnected(features, dim3, cancellable, progress),
+                executor, cancellable);
+    }
+
+   /**
+    * Returns the list of strongly connected Sets of vertices of the directed
+    * graph formed by features.
+    * The computation is iterative and runs in parallel on multi-core machines.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    */
+    public static List<Set<INode>> createStronglyConnectedNodeSets(Collection<Feature> features, boolean dim3) {
+        return createStronglyConnectedNodeSets(features, dim3, null, null);
+    }
+
+   /**
+    * Returns the list of strongly connected Sets of vertices of the directed
+    * graph formed by features.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static List<Set<INode>> createStronglyConnectedNodeSets(Collection<Feature> features, boolean dim3,
+                                                                   CancellationToken token,
+                                                                   ProgressListener progress) {
+        Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(features, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.createStronglyConnectedNodeSets");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        IntGraph<INode,FeatureAsEdge> g = IntGraph.of(graph);
+        int[] components = StrongConnectivity.components(g, Monitor.of(token, null));
+        List<Set<INode>> sets = new ArrayList<>();
+        for (int v = 0 ; v < components.length ; v++) {
+            if (components[v] == sets.size()) sets.add(new HashSet<>());
+            sets.get(components[v]).add(g.vertex(v));
+        }
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return sets;
+    }
+
+   /**
+    * Returns a future which will be completed with the list of strongly
+    * connected Sets of vertices of the directed graph formed by features.
+    * Cancelling the future cancels the token.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<List<Set<INode>>> createStronglyConnectedNodeSetsAsync(
+            Collection<Feature> features, boolean dim3, Executor executor,
+            CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> createStronglyConnectedNodeSets(features, dim3, cancellable, progress),
+                executor, cancellable);
+    }
+
+   /**
+    * Returns the strongly connected components of the directed graph formed by
+    * features which cannot be left (SINK), which cannot be reached (SOURCE) or
+    * both (ISOLATED). In a one-way street network, these components are trap
+    * areas or unreachable areas. The largest component, which is the main
+    * network, is not returned.
+    * <p>Each component is returned as a Feature with a MultiPoint geometry
+    * made of its nodes and the following attributes : type (SINK, SOURCE or
+    * ISOLATED) and size (number of nodes).</p>
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    */
+    public static List<Feature> getSinkAndSourceComponents(Collection<Feature> features, boolean dim3) {
+        return getSinkAndSourceComponents(features, dim3, null, null);
+    }
+
+   /**
+    * Returns the strongly connected components of the directed graph formed by
+    * features which cannot be left (SINK), which cannot be reached (SOURCE) or
+    * both (ISOLATED). See {@link #getSinkAndSourceComponents(Collection, boolean)}.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    * @throws java.util.concurrent.CancellationException if token is cancelled
+    */
+    public static List<Feature> getSinkAndSourceComponents(Collection<Feature> features, boolean dim3,
+                                                           CancellationToken token,
+                                                           ProgressListener progress) {
+        Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(features, dim3, token, progress);
+        Recorder recorder = GraphMetrics.recorder("GraphUtil.getSinkAndSourceComponents");
+        recorder.add(Counter.FEATURES, features.size());
+        long time = recorder.start();
+        IntGraph<INode,FeatureAsEdge> g = IntGraph.of(graph);
+        int[] components = StrongConnectivity.components(g, Monitor.of(token, null));
+        int count = StrongConnectivity.count(components);
+        int[] sizes = new int[count];
+        for (int c : components) sizes[c]++;
+        boolean[] hasOut = new boolean[count];
+        boolean[] hasIn = new boolean[count];
+        for (int e = 0 ; e < g.edgeCount() ; e++) {
+            int c1 = components[g.edgeSource[e]];
+            int c2 = components[g.edgeTarget[e]];
+            if (c1 != c2) {
+                hasOut[c1] = true;
+                hasIn[c2] = true;
+            }
+        }
+        int largest = 0;
+        for (int c = 1 ; c < count ; c++) {
+            if (sizes[c] > sizes[largest]) largest = c;
+        }
+        Coordinate[][] coordinates = new Coordinate[count][];
+        int[] filled = new int[count];
+        for (int v = 0 ; v < components.length ; v++) {
+            int c = components[v];
+            if (c == largest || (hasOut[c] && hasIn[c])) continue;
+            if (coordinates[c] == null) coordinates[c] = new Coordinate[sizes[c]];
+            coordinates[c][filled[c]++] = g.vertex(v).getCoordinate();
+        }
+        FeatureSchema schema = new FeatureSchema();
+        schema.addAttribute("geometry", AttributeType.GEOMETRY);
+        schema.addAttribute("type", AttributeType.STRING);
+        schema.addAttribute("size", AttributeType.INTEGER);
+        List<Feature> result = new ArrayList<>();
+        for (int c = 0 ; c < count ; c++) {
+            if (coordinates[c] == null) continue;
+            Feature f = new BasicFeature(schema);
+            f.setGeometry(INode.DEFAULT_GEOMETRY_FACTORY.createMultiPointFromCoords(coordinates[c]));
+            f.setAttribute("type", hasOut[c] ? SOURCE : hasIn[c] ? SINK : ISOLATED);
+            f.setAttribute("size", sizes[c]);
+            result.add(f);
+        }
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return result;
+    }
+
+   /**
+    * Returns a future which will be completed with the SINK, SOURCE and
+    * ISOLATED strongly connected components of the directed graph formed by
+    * features. Cancelling the future cancels the token.
+    * @param features the collection of features
+    * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+    * @param executor the executor running the operation
+    * @param token token used to cancel the operation (may be null)
+    * @param progress listener receiving the progress of the operation (may be null)
+    */
+    public static CompletableFuture<List<Feature>> getSinkAndSourceComponentsAsync(
+            Collection<Feature> features, boolean dim3, Executor executor,
+            CancellationToken token, ProgressListener progress) {
+        CancellationToken cancellable = token == null ? new CancellationToken() : token;
+        return Monitor.supplyAsync(() -> getSinkAndSourceComponents(features, dim3, cancellable, progress),
+                executor, cancellable);
+    }
+
+    private static Graph<INode,FeatureAsEdge> createGraph(Collection<Feature> features,
+                                                          boolean directed, boolean dim3,
+                                                          CancellationToken token,
+                                                          ProgressListener progress) {
+        return directed ?
+                GraphFactory.createDirectedGraph(features, dim3, token, progress)
+                :GraphFactory.createUndirectedGraph(features, dim3, token, progress);
+    }
+
+    /**
+     * Connected components of a graph, computed one at a time by a
+     * breadth-first traversal of the graph itself (edges are followed in both
+     * directions). After next, nodes holds the vertices of the current
+     * component. Apart from the current component, only the set of visited
+     * vertices is kept. The monitor is notified once per visited vertex.
+     */
+    private static final class Components {
+
+        private final Graph<INode,FeatureAsEdge> graph;
+        private final Monitor monitor;
+        private final Iterator<INode> seeds;
+        private final Set<INode> visited = new HashSet<>();
+        final List<INode> nodes = new ArrayList<>();
+        int id = -1;
+        private final long total;
+        private INode seed;
+        private long done;
+
+        Components(Graph<INode,FeatureAsEdge> graph, Monitor monitor) {
+            this.graph = graph;
+            this.monitor = monitor;
+            this.seeds = graph.vertexSet().iterator();
+            this.total = graph.vertexSet().size();
+        }
+
+        boolean hasNext() {
+            while (seed == null && seeds.hasNext()) {
+                INode node = seeds.next();
+                if (!visited.contains(node)) seed = node;
+            }
+            return seed != null;
+        }
+
+        void next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            nodes.clear();
+            visit(seed);
+            seed = null;
+            for (int i = 0 ; i < nodes.size() ; i++) {
+                INode v = nodes.get(i);
+                monitor.worked(done++, total);
+                for (FeatureAsEdge e : graph.edgesOf(v)) {
+                    visit(Graphs.getOppositeVertex(graph, e, v));
+                }
+            }
+            id++;
+        }
+
+        private void visit(INode v) {
+            if (visited.add(v)) nodes.add(v);
+        }
+    }
+
+    /**
+     * Creates the node features of a graph, component after component.
+     */
+    private static final class NodeIterator implements Iterator<Feature> {
+
+        private final Graph<INode,FeatureAsEdge> graph;
+        private final int minDegree;
+        private final int maxDegree;
+        private final FeatureSchema schema;
+        private final Components components;
+        private int cursor;
+        private Feature next;
+
+        NodeIterator(Graph<INode,FeatureAsEdge> graph, int minDegree, int maxDegree, FeatureSchema schema) {
+            this.graph = graph;
+            this.minDegree = minDegree;
+            this.maxDegree = maxDegree;
+            this.schema = schema;
+            this.components = new Components(graph, Monitor.NONE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (cursor == components.nodes.size()) {
+                    if (!components.hasNext()) return false;
+                    components.next();
+                    cursor = 0;
+                }
+                INode node = components.nodes.get(cursor++);
+                int degree = graph.degreeOf(node);
+                if (degree >= minDegree && degree <= maxDegree) {
+                    Feature f = new BasicFeature(schema);
+                    f.setGeometry(node.getGeometry());
+                    f.setAttribute(COMPONENT, components.id);
+                    f.setAttribute(SIZE, components.nodes.size());
+                    f.setAttribute(DEGREE, degree);
+                    next = f;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Feature next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Feature f = next;
+            next = null;
+            return f;
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jgrapht.Graph;
+
+/**
+ * Compact copy of a jgrapht graph where vertices and edges are identified by
+ * int indices and adjacency is stored in primitive arrays (compressed sparse
+ * row format). Adjacency lists of each vertex are sorted by neighbour index.
+ * <p>For an undirected graph, out-arcs and in-arcs are the same arrays, and
+ * each edge appears in the adjacency list of both of its ends.</p>
+ * Instances are never modified after construction and can be read by several
+ * threads concurrently.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class IntGraph<V,E> {
+
+    final boolean directed;
+
+    // stored as Object[] : a V[] field would fail a checkcast at call sites
+    private final Object[] vertices;
+    private final Object[] edges;
+    final Map<V,Integer> vertexIndex;
+
+    final int[] edgeSource;
+    final int[] edgeTarget;
+    final double[] weights;
+
+    // out-arcs of vertex v are in [outOffsets[v], outOffsets[v+1])
+    final int[] outOffsets;
+    final int[] outTargets;
+    final int[] outEdges;
+
+    // in-arcs of vertex v are in [inOffsets[v], inOffsets[v+1])
+    final int[] inOffsets;
+    final int[] inSources;
+    final int[] inEdges;
+
+
+    private IntGraph(boolean directed, Object[] vertices, Object[] edges, Map<V,Integer> vertexIndex,
+                     int[] edgeSource, int[] edgeTarget, double[] weights) {
+        this.directed = directed;
+        this.vertices = vertices;
+        this.edges = edges;
+        this.vertexIndex = vertexIndex;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.weights = weights;
+        int n = vertices.length;
+        int m = edges.length;
+        int[] edgeIds = new int[m];
+        for (int i = 0 ; i < m ; i++) edgeIds[i] = i;
+        if (directed) {
+            int[][] out = csr(n, edgeSource, edgeTarget, edgeIds);
+            outOffsets = out[0];
+            outTargets = out[1];
+            outEdges = out[2];
+            int[][] in = csr(n, edgeTarget, edgeSource, edgeIds);
+            inOffsets = in[0];
+            inSources = in[1];
+            inEdges = in[2];
+        } else {
+            int[] from = new int[2*m];
+            int[] to = new int[2*m];
+            int[] arcEdges = new int[2*m];
+            for (int i = 0 ; i < m ; i++) {
+                from[2*i] = edgeSource[i];
+                to[2*i] = edgeTarget[i];
+                from[2*i+1] = edgeTarget[i];
+                to[2*i+1] = edgeSource[i];
+                arcEdges[2*i] = i;
+                arcEdges[2*i+1] = i;
+            }
+            int[][] out = csr(n, from, to, arcEdges);
+            outOffsets = inOffsets = out[0];
+            outTargets = inSources = out[1];
+            outEdges = inEdges = out[2];
+        }
+    }
+
+
+    /**
+     * Copy of this graph sharing the same topology with different weights.
+     */
+    private IntGraph(IntGraph<V,E> topology, double[] weights) {
+        this.directed = topology.directed;
+        this.vertices = topology.vertices;
+        this.edges = topology.edges;
+        this.vertexIndex = topology.vertexIndex;
+        this.edgeSource = topology.edgeSource;
+        this.edgeTarget = topology.edgeTarget;
+        this.weights = weights;
+        this.outOffsets = topology.outOffsets;
+        this.outTargets = topology.outTargets;
+        this.outEdges = topology.outEdges;
+        this.inOffsets = topology.inOffsets;
+        this.inSources = topology.inSources;
+        this.inEdges = topology.inEdges;
+    }
+
+
+    /**
+     * Create an IntGraph from a jgrapht graph.
+     * Vertex indices follow the iteration order of graph.vertexSet() and edge
+     * indices follow the iteration order of graph.edgeSet().
+     * @param graph the graph to copy
+     */
+    static <V,E> IntGraph<V,E> of(Graph<V,E> graph) {
+        int n = graph.vertexSet().size();
+        int m = graph.edgeSet().size();
+        Object[] vertices = graph.vertexSet().toArray();
+        Map<V,Integer> vertexIndex = new HashMap<>(Math.max(16, (int)(n/0.75f) + 1));
+        int index = 0;
+        for (V v : graph.vertexSet()) vertexIndex.put(v, index++);
+        Object[] edges = new Object[m];
+        int[] edgeSource = new int[m];
+        int[] edgeTarget = new int[m];
+        double[] weights = new double[m];
+        index = 0;
+        for (E e : graph.edgeSet()) {
+            int i = index++;
+            edges[i] = e;
+            edgeSource[i] = vertexIndex.get(graph.getEdgeSource(e));
+            edgeTarget[i] = vertexIndex.get(graph.getEdgeTarget(e));
+            weights[i] = graph.getEdgeWeight(e);
+        }
+        return new IntGraph<>(graph.getType().isDirected(), vertices, edges, vertexIndex,
+                edgeSource, edgeTarget, weights);
+    }
+
+
+    /**
+     * Returns a graph sharing the topology of this graph with new weights.
+     */
+    IntGraph<V,E> withWeights(double[] weights) {
+        assert weights.length == edges.length : "weights array must have one value per edge";
+        return new IntGraph<>(this, weights);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    V vertex(int v) {
+        return (V)vertices[v];
+    }
+
+    @SuppressWarnings("unchecked")
+    E edge(int e) {
+        return (E)edges[e];
+    }
+
+    int vertexCount() {
+        return vertices.length;
+    }
+
+    int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the index of vertex v or -1 if v is not in this graph.
+     */
+    int indexOf(V v) {
+        Integer i = vertexIndex.get(v);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Returns the end of edge e opposite to vertex v.
+     */
+    int opposite(int e, int v) {
+        return edgeSource[e] == v ? edgeTarget[e] : edgeSource[e];
+    }
+
+
+    /**
+     * Build a compressed sparse row representation of arcs from-&gt;to, sorted
+     * by from, then by to, using two stable counting sorts.
+     * @return an array containing offsets, targets and edge indices
+     */
+    private static int[][] csr(int n, int[] from, int[] to, int[] arcEdges) {
+        int m = from.length;
+        int[] order = new int[m];
+        for (int i = 0 ; i < m ; i++) order[i] = i;
+        order = sortBy(n, to, order);
+        order = sortBy(n, from, order);
+        int[] offsets = new int[n+1];
+        for (int i = 0 ; i < m ; i++) offsets[from[i]+1]++;
+        for (int i = 0 ; i < n ; i++) offsets[i+1] += offsets[i];
+        int[] targets = new int[m];
+        int[] edgeIds = new int[m];
+        for (int i = 0 ; i < m ; i++) {
+            targets[i] = to[order[i]];
+            edgeIds[i] = arcEdges[order[i]];
+        }
+        return new int[][]{offsets, targets, edgeIds};
+    }
+
+
+    private static int[] sortBy(int n, int[] keys, int[] order) {
+        int[] count = new int[n+1];
+        for (int i : order) count[keys[i]+1]++;
+        for (int i = 0 ; i < n ; i++) count[i+1] += count[i];
+        int[] sorted = new int[order.length];
+        for (int i : order) sorted[count[keys[i]]++] = i;
+        return sorted;
+    }
+
+}
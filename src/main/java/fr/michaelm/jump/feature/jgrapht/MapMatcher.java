@@ -0,0 +1,365 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.jgrapht.Graph;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Matches GPS traces onto a network built by GraphFactory, using a hidden
+ * Markov model solved by the Viterbi algorithm.
+ * <p>Hidden states are the projections of each GPS point onto the edges found
+ * within searchRadius (at most {@link #MAX_CANDIDATES} per point). The
+ * emission probability of a candidate follows a gaussian law of its distance
+ * to the GPS point (standard deviation sigma). The transition probability
+ * between two candidates follows an exponential law (parameter beta) of the
+ * difference between their route distance in the network and the distance
+ * between the GPS points.</p>
+ * <p>Route distances are computed by Dijkstra searches bounded to a few times
+ * the distance between the GPS points, and cached for the duration of a
+ * trace. Search arrays are allocated once per thread and reused from one
+ * search to the next. Edge weights are expected to be the lengths of the
+ * edge geometries, as in graphs built by GraphFactory, and edge geometries to
+ * go from the edge source to the edge target.</p>
+ * If no route connects two consecutive points, the trace is split and each
+ * part is matched independently. A MapMatcher is immutable and can be used
+ * by several threads.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class MapMatcher {
+
+    /**
+     * Maximum number of candidate edges considered for a GPS point.
+     */
+    public static final int MAX_CANDIDATES = 8;
+
+    /**
+     * Route searches are bounded to ROUTE_FACTOR times the distance between
+     * the GPS points, plus twice the search radius.
+     */
+    public static final double ROUTE_FACTOR = 4.0;
+
+    private final FrozenGraph<INode,FeatureAsEdge> graph;
+    private final IntGraph<INode,FeatureAsEdge> g;
+    private final EdgeIndex index;
+    private final double searchRadius;
+    private final double sigma;
+    private final double beta;
+    private final ThreadLocal<Search> searches;
+
+    /**
+     * Creates a MapMatcher for graph.
+     * @param graph the network (directed or undirected)
+     * @param searchRadius maximum distance between a GPS point and its
+     *                     candidate edges
+     * @param sigma standard deviation of the GPS error
+     * @param beta mean of the difference between route distance and distance
+     *             between consecutive GPS points
+     */
+    public MapMatcher(Graph<INode,FeatureAsEdge> graph, double searchRadius, double sigma, double beta) {
+        this(FrozenGraph.freeze(graph), searchRadius, sigma, beta);
+    }
+
+    /**
+     * Creates a MapMatcher for a frozen graph.
+     * @param graph the network (directed or undirected)
+     * @param searchRadius maximum distance between a GPS point and its
+     *                     candidate edges
+     * @param sigma standard deviation of the GPS error
+     * @param beta mean of the difference between route distance and distance
+     *             between consecutive GPS points
+     */
+    public MapMatcher(FrozenGraph<INode,FeatureAsEdge> graph, double searchRadius, double sigma, double beta) {
+        assert searchRadius > 0 : "" + searchRadius + " : searchRadius must be positive";
+        assert sigma > 0 : "" + sigma + " : sigma must be positive";
+        assert beta > 0 : "" + beta + " : beta must be positive";
+        this.graph = graph;
+        this.g = graph.intGraph();
+        this.searchRadius = searchRadius;
+        this.sigma = sigma;
+        this.beta = beta;
+        this.index = new EdgeIndex(g);
+        int n = g.vertexCount();
+        this.searches = ThreadLocal.withInitial(() -> new Search(n));
+    }
+
+    public FrozenGraph<INode,FeatureAsEdge> getGraph() {
+        return graph;
+    }
+
+
+    /**
+     * Returns the sequence of edges followed by trace. Consecutive duplicates
+     * are removed. Points without candidate edge are ignored.
+     * @param trace coordinates of the GPS points, in chronological order
+     * @return the matched edges
+     */
+    public List<FeatureAsEdge> match(List<Coordinate> trace) {
+        Search search = searches.get();
+        Map<Integer,Table> cache = new HashMap<>();
+        List<Integer> edges = new ArrayList<>();
+        List<EdgeIndex.Snap[]> steps = new ArrayList<>();
+        List<double[]> scores = new ArrayList<>();
+        List<int[]> parents = new ArrayList<>();
+        List<Coordinate> points = new ArrayList<>();
+        for (Coordinate p : trace) {
+            EdgeIndex.Snap[] candidates = candidates(p);
+            if (candidates.length == 0) continue;
+            double[] score = new double[candidates.length];
+            int[] parent = new int[candidates.length];
+            Arrays.fill(score, Double.NEGATIVE_INFINITY);
+            Arrays.fill(parent, -1);
+            boolean reached = false;
+            if (!steps.isEmpty()) {
+                EdgeIndex.Snap[] previous = steps.get(steps.size()-1);
+                double[] previousScore = scores.get(scores.size()-1);
+                double gc = p.distance(points.get(points.size()-1));
+                double bound = gc * ROUTE_FACTOR + 2 * searchRadius;
+                for (int j = 0 ; j < candidates.length ; j++) {
+                    for (int i = 0 ; i < previous.length ; i++) {
+                        if (previousScore[i] == Double.NEGATIVE_INFINITY) continue;
+                        double route = route(previous[i], candidates[j], bound, search, cache, null);
+                        if (route == Double.POSITIVE_INFINITY) continue;
+                        double s = previousScore[i] - Math.abs(route - gc) / beta;
+                        if (s > score[j]) {
+                            score[j] = s;
+                            parent[j] = i;
+                        }
+                    }
+                    if (parent[j] >= 0) reached = true;
+                }
+            }
+            if (!reached && !steps.isEmpty()) {
+                // the trace is broken : match what precedes and start again
+                backtrack(steps, scores, parents, points, search, cache, edges);
+                steps.clear();
+                scores.clear();
+                parents.clear();
+                points.clear();
+                Arrays.fill(parent, -1);
+            }
+            for (int j = 0 ; j < candidates.length ; j++) {
+                double d = candidates[j].distance / sigma;
+                score[j] = (reached ? score[j] : 0) - 0.5 * d * d;
+            }
+            steps.add(candidates);
+            scores.add(score);
+            parents.add(parent);
+            points.add(p);
+        }
+        if (!steps.isEmpty()) backtrack(steps, scores, parents, points, search, cache, edges);
+        List<FeatureAsEdge> list = new ArrayList<>(edges.size());
+        int last = -1;
+        for (int e : edges) {
+            if (e != last) list.add(g.edge(e));
+            last = e;
+        }
+        return list;
+    }
+
+    /**
+     * Returns the sequence of edges followed by the coordinates of geometry.
+     * @param trace a LineString or MultiPoint representing a GPS trace
+     * @return the matched edges
+     */
+    public List<FeatureAsEdge> match(Geometry trace) {
+        return match(Arrays.asList(trace.getCoordinates()));
+    }
+
+    /**
+     * Matches traces in parallel.
+     * @param traces the GPS traces
+     * @return the matched edges of each trace, in the same order as traces
+     */
+    public List<List<FeatureAsEdge>> matchAll(List<List<Coordinate>> traces) {
+        return traces.parallelStream().map(this::match).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Appends the edges of the most likely path ending at the last step.
+     */
+    private void backtrack(List<EdgeIndex.Snap[]> steps, List<double[]> scores, List<int[]> parents,
+                           List<Coordinate> points, Search search, Map<Integer,Table> cache,
+                           List<Integer> edges) {
+        int t = steps.size() - 1;
+        double[] last = scores.get(t);
+        int best = 0;
+        for (int j = 1 ; j < last.length ; j++) if (last[j] > last[best]) best = j;
+        EdgeIndex.Snap[] path = new EdgeIndex.Snap[steps.size()];
+        for ( ; t >= 0 ; t--) {
+            path[t] = steps.get(t)[best];
+            best = parents.get(t)[best];
+        }
+        edges.add(path[0].edge);
+        for (int i = 1 ; i < path.length ; i++) {
+            double bound = points.get(i).distance(points.get(i-1)) * ROUTE_FACTOR + 2 * searchRadius;
+            route(path[i-1], path[i], bound, search, cache, edges);
+            edges.add(path[i].edge);
+        }
+    }
+
+
+    /**
+     * Returns the candidates of point p, sorted by distance.
+     */
+    private EdgeIndex.Snap[] candidates(Coordinate p) {
+        return index.candidates(p, searchRadius, MAX_CANDIDATES).toArray(new EdgeIndex.Snap[0]);
+    }
+
+
+    /**
+     * Returns the route distance from candidate a to candidate b, or
+     * Double.POSITIVE_INFINITY if it exceeds bound. If path is not null, the
+     * edges strictly between a and b are appended to path.
+     */
+    private double route(EdgeIndex.Snap a, EdgeIndex.Snap b, double bound,
+                         Search search, Map<Integer,Table> cache, List<Integer> path) {
+        double best = Double.POSITIVE_INFINITY;
+        int bestExit = -1;
+        int bestEntry = -1;
+        if (a.edge == b.edge) {
+            if (b.offset >= a.offset) best = b.offset - a.offset;
+            else if (!g.directed) best = a.offset - b.offset;
+        }
+        double wa = g.weights[a.edge];
+        double wb = g.weights[b.edge];
+        int exits = g.directed ? 1 : 2;
+        for (int i = 0 ; i < exits ; i++) {
+            int u = i == 0 ? g.edgeTarget[a.edge] : g.edgeSource[a.edge];
+            double cu = i == 0 ? wa - a.offset : a.offset;
+            if (cu >= Math.min(best, bound)) continue;
+            Table table = table(u, Math.min(best, bound) - cu, search, cache);
+            for (int j = 0 ; j < exits ; j++) {
+                int v = j == 0 ? g.edgeSource[b.edge] : g.edgeTarget[b.edge];
+                double cv = j == 0 ? b.offset : wb - b.offset;
+                double d = cu + table.distance(v) + cv;
+                if (d < best) {
+                    best = d;
+                    bestExit = u;
+                    bestEntry = v;
+                }
+            }
+        }
+        if (best > bound) return Double.POSITIVE_INFINITY;
+        if (path != null && bestExit >= 0) {
+            Table table = cache.get(bestExit);
+            List<Integer> reversed = new ArrayList<>();
+            for (int v = bestEntry ; v != bestExit ; ) {
+                int e = table.predecessor(v);
+                reversed.add(e);
+                v = g.directed ? g.edgeSource[e] : g.opposite(e, v);
+            }
+            Collections.reverse(reversed);
+            path.addAll(reversed);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the shortest path distances from u up to bound, from the trace
+     * cache if a large enough search has already been done from u.
+     */
+    private Table table(int u, double bound, Search search, Map<Integer,Table> cache) {
+        Table table = cache.get(u);
+        if (table == null || table.bound < bound) {
+            table = search.run(g, u, bound);
+            cache.put(u, table);
+        }
+        return table;
+    }
+
+
+    /**
+     * Result of a bounded search : vertices reached within bound, sorted by
+     * index, with their distance and the edge leading to them.
+     */
+    private static final class Table {
+        final double bound;
+        final int[] vertices;
+        final double[] distances;
+        final int[] predecessors;
+
+        Table(double bound, int[] vertices, double[] distances, int[] predecessors) {
+            this.bound = bound;
+            this.vertices = vertices;
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+
+        double distance(int v) {
+            int i = Arrays.binarySearch(vertices, v);
+            return i < 0 ? Double.POSITIVE_INFINITY : distances[i];
+        }
+
+        int predecessor(int v) {
+            return predecessors[Arrays.binarySearch(vertices, v)];
+        }
+    }
+
+
+    /**
+     * Dijkstra search state of a thread. Arrays are reused from one search to
+     * the next, stamps avoiding to clear them.
+     */
+    private static final class Search {
+
+        private final double[] dist;
+        private final int[] predecessor;
+        private final int[] seen;
+        private final int[] settled;
+        private final MinHeap heap = new MinHeap(256);
+        private int[] reached = new int[256];
+        private int round = 0;
+
+        Search(int n) {
+            dist = new double[n];
+            predecessor = new int[n];
+            seen = new int[n];
+            settled = new int[n];
+        }
+
+        Table run(IntGraph<?,?> g, int source, double bound) {
+            round++;
+            int count = 0;
+            heap.clear();
+            dist[source] = 0;
+            predecessor[source] = -1;
+            seen[source] = round;
+            heap.add(source, 0);
+            while (!heap.isEmpty()) {
+                double d = heap.minKey();
+                int v = heap.poll();
+                if (settled[v] == round || d > dist[v]) continue;
+                if (d > bound) break;
+                settled[v] = round;
+                if (count == reached.length) reached = Arrays.copyOf(reached, count * 2);
+                reached[count++] = v;
+                for (int i = g.outOffsets[v] ; i < g.outOffsets[v+1] ; i++) {
+                    int w = g.outTargets[i];
+                    int e = g.outEdges[i];
+                    double nd = d + g.weights[e];
+                    if (nd <= bound && (seen[w] != round || nd < dist[w])) {
+                        seen[w] = round;
+                        dist[w] = nd;
+                        predecessor[w] = e;
+                        heap.add(w, nd);
+                    }
+                }
+            }
+            int[] vertices = Arrays.copyOf(reached, count);
+            Arrays.sort(vertices);
+            double[] distances = new double[count];
+            int[] predecessors = new int[count];
+            for (int i = 0 ; i < count ; i++) {
+                distances[i] = dist[vertices[i]];
+                predecessors[i] = predecessor[vertices[i]];
+            }
+            return new Table(bound, vertices, distances, predecessors);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * GraphMetricsListener recording operation metrics into a Micrometer
+ * MeterRegistry :
+ * <ul>
+ *     <li>jgrapht.operation (timer, tag operation)</li>
+ *     <li>jgrapht.operation.phase (timer, tags operation and phase)</li>
+ *     <li>jgrapht.operation.items (counter, tags operation and counter)</li>
+ *     <li>jgrapht.operation.heap (distribution summary in bytes, tag operation)</li>
+ * </ul>
+ * <p>Micrometer is an optional dependency of jump-jgrapht : this class can
+ * only be used if micrometer-core is on the classpath.</p>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class MicrometerGraphMetricsListener implements GraphMetricsListener {
+
+    private final MeterRegistry registry;
+
+    public MicrometerGraphMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void operationCompleted(GraphOperationStats stats) {
+        String operation = stats.getOperation();
+        Timer.builder("jgrapht.operation")
+                .tag("operation", operation)
+                .register(registry)
+                .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+        for (Phase phase : Phase.values()) {
+            long nanos = stats.getPhaseNanos(phase);
+            if (nanos == 0) continue;
+            Timer.builder("jgrapht.operation.phase")
+                    .tag("operation", operation)
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+        for (GraphOperationStats.Counter counter : GraphOperationStats.Counter.values()) {
+            Counter.builder("jgrapht.operation.items")
+                    .tag("operation", operation)
+                    .tag("counter", counter.name().toLowerCase(Locale.ROOT))
+                    .register(registry)
+                    .increment(stats.getCount(counter));
+        }
+        DistributionSummary.builder("jgrapht.operation.heap")
+                .tag("operation", operation)
+                .baseUnit("bytes")
+                .register(registry)
+                .record(stats.getEstimatedHeapBytes());
+    }
+
+}
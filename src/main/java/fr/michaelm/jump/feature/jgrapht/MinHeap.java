@@ -0,0 +1,89 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int values ordered by double keys, without boxing.
+ * The heap does not support decrease-key : the same value may be inserted
+ * several times, and callers ignore stale entries when they are polled
+ * (lazy deletion), which is the usual pattern for Dijkstra searches.
+ * This class is not thread-safe.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class MinHeap {
+
+    private double[] keys;
+    private int[] values;
+    private int size;
+
+    MinHeap(int capacity) {
+        keys = new double[Math.max(capacity, 16)];
+        values = new int[Math.max(capacity, 16)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds value with the given key.
+     */
+    void add(int value, double key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /**
+     * Returns the smallest key of the heap, which must not be empty.
+     */
+    double minKey() {
+        return keys[0];
+    }
+
+    /**
+     * Removes and returns the value having the smallest key.
+     */
+    int poll() {
+        int result = values[0];
+        size--;
+        if (size > 0) {
+            double key = keys[size];
+            int value = values[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (key <= keys[child]) break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,97 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Combines the CancellationToken and the ProgressListener of an operation.
+ * The token is checked and the progress reported once per chunk of items, so
+ * that monitoring costs a counter test per item.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class Monitor {
+
+    static final Monitor NONE = new Monitor(null, null);
+
+    // must be a power of 2
+    private static final int CHUNK = 1024;
+
+    private final CancellationToken token;
+    private final ProgressListener listener;
+    private final boolean active;
+
+    private Monitor(CancellationToken token, ProgressListener listener) {
+        this.token = token;
+        this.listener = listener;
+        this.active = token != null || listener != null;
+    }
+
+    /**
+     * Returns a monitor for token and listener, which may both be null.
+     */
+    static Monitor of(CancellationToken token, ProgressListener listener) {
+        return token == null && listener == null ? NONE : new Monitor(token, listener);
+    }
+
+    /**
+     * To be called after each processed item. Once per chunk, checks if the
+     * operation has been cancelled and reports progress.
+     * @param done number of items processed so far
+     * @param total total number of items
+     * @throws CancellationException if the operation has been cancelled
+     */
+    void worked(long done, long total) {
+        if (active && (done & (CHUNK - 1)) == 0) {
+            checkCancelled();
+            if (listener != null) listener.progress(done, total);
+        }
+    }
+
+    /**
+     * Reports that all items have been processed.
+     */
+    void done(long total) {
+        if (listener != null) listener.progress(total, total);
+    }
+
+    /**
+     * @throws CancellationException if the operation has been cancelled
+     */
+    void checkCancelled() {
+        if (token != null) token.throwIfCancelled();
+    }
+
+
+    /**
+     * Runs supplier on executor. The returned future is cancelled if the
+     * supplier is stopped by a CancellationException, and cancelling the
+     * future cancels the token. Callers must give the supplier and this
+     * method the same token, creating one if the user gave none : with a null
+     * token, cancelling the future could not stop an operation which has
+     * already started.
+     */
+    static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor,
+                                                CancellationToken token) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (token != null) {
+            future.whenComplete((result, throwable) -> {
+                if (future.isCancelled()) token.cancel();
+            });
+        }
+        executor.execute(() -> {
+            if (future.isDone()) return;
+            try {
+                future.complete(supplier.get());
+            } catch (CancellationException e) {
+                future.cancel(false);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+}
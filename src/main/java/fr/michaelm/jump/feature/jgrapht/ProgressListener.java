@@ -0,0 +1,21 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+/**
+ * Callback receiving the progress of a long graph operation.
+ * It is called by the thread running the operation, once per chunk of
+ * features. In OpenJUMP, it can be bound to the TaskMonitor of a plugin :
+ * <pre>
+ * ProgressListener progress = (done, total) -&gt; monitor.report((int)done, (int)total, "features");
+ * </pre>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Reports that done items out of total have been processed.
+     */
+    void progress(long done, long total);
+
+}
@@ -0,0 +1,90 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import org.jgrapht.Graph;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * Records timings and counts of a single operation.
+ * The NONE recorder does nothing and does not read the clock, so that
+ * instrumentation costs a field test when metrics are disabled.
+ * A recorder is used by the thread running the operation only.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class Recorder {
+
+    static final Recorder NONE = new Recorder(null);
+
+    // rough average size of a vertex and of an edge in a jgrapht pseudograph
+    // including node or edge wrapper, map entries and intrusive edge
+    private static final long VERTEX_BYTES = 150L;
+    private static final long EDGE_BYTES = 120L;
+
+    private final String operation;
+    private final boolean enabled;
+    private final long startTime;
+    private final long[] phaseNanos;
+    private final long[] counts;
+
+    Recorder(String operation) {
+        this.operation = operation;
+        this.enabled = operation != null;
+        this.startTime = enabled ? System.nanoTime() : 0L;
+        this.phaseNanos = enabled ? new long[Phase.values().length] : null;
+        this.counts = enabled ? new long[Counter.values().length] : null;
+    }
+
+    /**
+     * Returns the current time, or 0 if this recorder is disabled.
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Adds the time elapsed since start to phase.
+     */
+    void stop(Phase phase, long start) {
+        if (enabled) phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    /**
+     * Adds the time elapsed since start to phase and returns the current time
+     * to start the next phase.
+     */
+    long lap(Phase phase, long start) {
+        if (!enabled) return 0L;
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    void add(Counter counter, long count) {
+        if (enabled) counts[counter.ordinal()] += count;
+    }
+
+    /**
+     * Records the size of the resulting graph and notifies the listeners.
+     * @param graph the graph built or analysed by the operation
+     */
+    void finish(Graph<?,?> graph) {
+        if (!enabled) return;
+        counts[Counter.NODES.ordinal()] = graph.vertexSet().size();
+        counts[Counter.EDGES.ordinal()] = graph.edgeSet().size();
+        finish();
+    }
+
+    /**
+     * Notifies the listeners.
+     */
+    void finish() {
+        if (!enabled) return;
+        long heap = counts[Counter.NODES.ordinal()] * VERTEX_BYTES +
+                counts[Counter.EDGES.ordinal()] * EDGE_BYTES;
+        GraphMetrics.fire(new GraphOperationStats(operation, System.nanoTime() - startTime,
+                phaseNanos, counts, heap));
+    }
+
+}
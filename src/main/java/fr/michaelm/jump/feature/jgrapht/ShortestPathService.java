@@ -0,0 +1,308 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * Shortest path query service for graphs receiving bursts of queries sharing
+ * the same origins (ex. all deliveries from a depot).
+ * <p>Queries are answered from shortest path trees, one per origin. Batched
+ * queries ({@link #queryPath(Object, Object)}, {@link #queryDistance(Object,
+ * Object)}) received for the same origin during the batching window are
+ * grouped and answered by a single tree.</p>
+ * <p>Trees are kept in a least recently used cache bounded by an estimation
+ * of the memory they use. The service reads the graph from a
+ * FrozenGraphHolder : when a new snapshot is published (ex. after a weight
+ * update), all cached trees are invalidated.</p>
+ * Hits, misses, evictions and batches are counted, and each tree computation
+ * is reported to the listeners of {@link GraphMetrics}. A service can be used
+ * by several threads.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class ShortestPathService<V,E> implements AutoCloseable {
+
+    private final FrozenGraphHolder<V,E> holder;
+    private final long maxCacheBytes;
+    private final long batchWindowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownScheduler;
+    private final Executor executor;
+
+    // access-ordered : the first entry is the least recently used tree
+    private final LinkedHashMap<V,ShortestPathTree<V,E>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private FrozenGraph<V,E> cachedGraph;
+    private long cachedBytes;
+
+    private final ConcurrentHashMap<V,CompletableFuture<ShortestPathTree<V,E>>> pending =
+            new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedQueries = new LongAdder();
+
+    /**
+     * Creates a service with its own scheduler thread, computing trees in
+     * the common fork join pool.
+     * @param holder holder of the current graph snapshot
+     * @param maxCacheBytes maximum memory used by cached trees
+     * @param batchWindowMillis time during which queries for an origin are
+     *                          grouped before the tree is computed
+     */
+    public ShortestPathService(FrozenGraphHolder<V,E> holder, long maxCacheBytes, long batchWindowMillis) {
+        this(holder, maxCacheBytes, batchWindowMillis,
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "ShortestPathService");
+                    thread.setDaemon(true);
+                    return thread;
+                }), true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service.
+     * @param holder holder of the current graph snapshot
+     * @param maxCacheBytes maximum memory used by cached trees
+     * @param batchWindowMillis time during which queries for an origin are
+     *                          grouped before the tree is computed
+     * @param scheduler scheduler used to close batching windows (not shut
+     *                  down by close)
+     * @param executor executor computing the trees of batched queries
+     */
+    public ShortestPathService(FrozenGraphHolder<V,E> holder, long maxCacheBytes, long batchWindowMillis,
+                               ScheduledExecutorService scheduler, Executor executor) {
+        this(holder, maxCacheBytes, batchWindowMillis, scheduler, false, executor);
+    }
+
+    private ShortestPathService(FrozenGraphHolder<V,E> holder, long maxCacheBytes, long batchWindowMillis,
+                                ScheduledExecutorService scheduler, boolean ownScheduler, Executor executor) {
+        assert maxCacheBytes >= 0 : "" + maxCacheBytes + " : maxCacheBytes must be positive or null";
+        assert batchWindowMillis >= 0 : "" + batchWindowMillis + " : batchWindowMillis must be positive or null";
+        this.holder = holder;
+        this.maxCacheBytes = maxCacheBytes;
+        this.batchWindowMillis = batchWindowMillis;
+        this.scheduler = scheduler;
+        this.ownScheduler = ownScheduler;
+        this.executor = executor;
+    }
+
+
+    /**
+     * Returns the shortest path tree of the current snapshot from origin,
+     * from the cache if possible.
+     * @throws IllegalArgumentException if the graph does not contain origin
+     */
+    public ShortestPathTree<V,E> getTree(V origin) {
+        FrozenGraph<V,E> graph = holder.get();
+        synchronized (cache) {
+            if (graph != cachedGraph) {
+                if (!cache.isEmpty()) invalidations.increment();
+                cache.clear();
+                cachedBytes = 0;
+                cachedGraph = graph;
+            }
+            ShortestPathTree<V,E> tree = cache.get(origin);
+            if (tree != null) {
+                hits.increment();
+                return tree;
+            }
+        }
+        misses.increment();
+        Recorder recorder = GraphMetrics.recorder("ShortestPathService.computeTree");
+        long time = recorder.start();
+        ShortestPathTree<V,E> tree = ShortestPathTree.compute(graph, origin);
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.add(Counter.NODES, graph.vertexCount());
+        recorder.add(Counter.EDGES, graph.edgeCount());
+        recorder.finish();
+        synchronized (cache) {
+            // the snapshot may have changed during the computation
+            if (graph == cachedGraph && tree.getEstimatedBytes() <= maxCacheBytes) {
+                ShortestPathTree<V,E> previous = cache.put(origin, tree);
+                if (previous != null) cachedBytes -= previous.getEstimatedBytes();
+                cachedBytes += tree.getEstimatedBytes();
+                Iterator<ShortestPathTree<V,E>> it = cache.values().iterator();
+                while (cachedBytes > maxCacheBytes && it.hasNext()) {
+                    cachedBytes -= it.next().getEstimatedBytes();
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the edges of the shortest path from origin to target, or null if
+     * target cannot be reached.
+     */
+    public List<E> getPath(V origin, V target) {
+        return getTree(origin).getPath(target);
+    }
+
+    /**
+     * Returns the length of the shortest path from origin to target, or
+     * Double.POSITIVE_INFINITY if target cannot be reached.
+     */
+    public double getDistance(V origin, V target) {
+        return getTree(origin).getDistance(target);
+    }
+
+
+    /**
+     * Queues a path query. Queries for the same origin received during the
+     * batching window are answered by the same tree.
+     * @return a future completed with the edges of the shortest path (null if
+     * target cannot be reached)
+     */
+    public CompletableFuture<List<E>> queryPath(V origin, V target) {
+        return batch(origin).thenApply(tree -> tree.getPath(target));
+    }
+
+    /**
+     * Queues a distance query. Queries for the same origin received during
+     * the batching window are answered by the same tree.
+     * @return a future completed with the length of the shortest path
+     */
+    public CompletableFuture<Double> queryDistance(V origin, V target) {
+        return batch(origin).thenApply(tree -> tree.getDistance(target));
+    }
+
+    private CompletableFuture<ShortestPathTree<V,E>> batch(V origin) {
+        batchedQueries.increment();
+        CompletableFuture<ShortestPathTree<V,E>> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(closedException());
+            return future;
+        }
+        CompletableFuture<ShortestPathTree<V,E>> existing = pending.putIfAbsent(origin, future);
+        if (existing != null) return existing;
+        // close may have drained pending queries before future was added
+        if (closed) {
+            fail(origin, future, closedException());
+            return future;
+        }
+        batches.increment();
+        try {
+            scheduler.schedule(() -> {
+                pending.remove(origin, future);
+                if (future.isDone()) return;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            future.complete(getTree(origin));
+                        } catch (Throwable t) {
+                            future.completeExceptionally(t);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                }
+            }, batchWindowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(origin, future, e);
+        }
+        return future;
+    }
+
+    private void fail(V origin, CompletableFuture<ShortestPathTree<V,E>> future, Throwable t) {
+        pending.remove(origin, future);
+        future.completeExceptionally(t);
+    }
+
+    private static RejectedExecutionException closedException() {
+        return new RejectedExecutionException("ShortestPathService is closed");
+    }
+
+
+    /**
+     * Removes all trees from the cache.
+     */
+    public void invalidate() {
+        synchronized (cache) {
+            if (!cache.isEmpty()) invalidations.increment();
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the proportion of tree requests answered from the cache.
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double)h / total;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of times the cache has been cleared because the
+     * snapshot changed or invalidate was called.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Returns the number of batches, i.e. of trees requested by batched
+     * queries.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getBatchedQueryCount() {
+        return batchedQueries.sum();
+    }
+
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * Shuts down the scheduler if it has been created by this service. Queued
+     * queries and queries received after close complete exceptionally with a
+     * RejectedExecutionException.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownScheduler) scheduler.shutdown();
+        RejectedExecutionException e = closedException();
+        for (V origin : pending.keySet()) {
+            CompletableFuture<ShortestPathTree<V,E>> future = pending.remove(origin);
+            if (future != null) future.completeExceptionally(e);
+        }
+    }
+
+}
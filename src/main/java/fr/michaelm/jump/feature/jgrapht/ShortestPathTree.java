@@ -0,0 +1,129 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest path tree computed from a single origin on a FrozenGraph.
+ * <p>The tree is stored in two primitive arrays indexed by vertex : the
+ * distance from the origin and the edge leading to the vertex in the tree.
+ * Paths to any number of targets are then read from the tree without a new
+ * search. A tree is immutable and remains valid for the snapshot it has been
+ * computed on, even if newer snapshots with different weights are published.</p>
+ * Weights must be positive.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public final class ShortestPathTree<V,E> {
+
+    private final FrozenGraph<V,E> graph;
+    private final int origin;
+    private final double[] distances;
+    private final int[] predecessors;
+
+    private ShortestPathTree(FrozenGraph<V,E> graph, int origin, double[] distances, int[] predecessors) {
+        this.graph = graph;
+        this.origin = origin;
+        this.distances = distances;
+        this.predecessors = predecessors;
+    }
+
+
+    /**
+     * Computes the shortest path tree of graph from origin (Dijkstra).
+     * @param graph the graph snapshot
+     * @param origin the origin of all paths
+     * @throws IllegalArgumentException if graph does not contain origin
+     */
+    public static <V,E> ShortestPathTree<V,E> compute(FrozenGraph<V,E> graph, V origin) {
+        int s = graph.indexOfVertex(origin);
+        if (s < 0) throw new IllegalArgumentException("no such vertex in graph: " + origin);
+        IntGraph<V,E> g = graph.intGraph();
+        int n = g.vertexCount();
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pred, -1);
+        MinHeap heap = new MinHeap(1024);
+        dist[s] = 0;
+        heap.add(s, 0);
+        while (!heap.isEmpty()) {
+            double d = heap.minKey();
+            int v = heap.poll();
+            if (settled[v] || d > dist[v]) continue;
+            settled[v] = true;
+            for (int i = g.outOffsets[v] ; i < g.outOffsets[v+1] ; i++) {
+                int w = g.outTargets[i];
+                int e = g.outEdges[i];
+                double nd = d + g.weights[e];
+                if (nd < dist[w]) {
+                    dist[w] = nd;
+                    pred[w] = e;
+                    heap.add(w, nd);
+                }
+            }
+        }
+        return new ShortestPathTree<>(graph, s, dist, pred);
+    }
+
+
+    /**
+     * Returns the snapshot this tree has been computed on.
+     */
+    public FrozenGraph<V,E> getGraph() {
+        return graph;
+    }
+
+    public V getOrigin() {
+        return graph.getVertex(origin);
+    }
+
+    /**
+     * Returns true if target can be reached from the origin.
+     */
+    public boolean isReachable(V target) {
+        int t = graph.indexOfVertex(target);
+        return t >= 0 && distances[t] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the length of the shortest path from the origin to target, or
+     * Double.POSITIVE_INFINITY if target cannot be reached.
+     */
+    public double getDistance(V target) {
+        int t = graph.indexOfVertex(target);
+        return t < 0 ? Double.POSITIVE_INFINITY : distances[t];
+    }
+
+    /**
+     * Returns the edges of the shortest path from the origin to target, an
+     * empty list if target is the origin, or null if target cannot be
+     * reached.
+     */
+    public List<E> getPath(V target) {
+        int t = graph.indexOfVertex(target);
+        if (t < 0 || distances[t] == Double.POSITIVE_INFINITY) return null;
+        IntGraph<V,E> g = graph.intGraph();
+        List<E> path = new ArrayList<>();
+        for (int v = t ; v != origin ; ) {
+            int e = predecessors[v];
+            path.add(g.edge(e));
+            v = g.directed ? g.edgeSource[e] : g.opposite(e, v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by this tree (the graph
+     * snapshot excluded).
+     */
+    public long getEstimatedBytes() {
+        // array headers, 8 bytes per distance and 4 bytes per predecessor
+        return 64L + 12L * distances.length;
+    }
+
+}
@@ -0,0 +1,373 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * Minimum spanning forest and Steiner tree of graphs built from feature
+ * collections (line networks as well as relation graphs).
+ * <p>The minimum spanning forest is computed by a parallel Borůvka algorithm
+ * working on primitive arrays (source, target and weight of each edge) : at
+ * each round, every component selects its cheapest outgoing edge, candidate
+ * edges being processed in parallel and the cheapest edge of each component
+ * being updated with compare-and-set operations. Selected edges are then
+ * added and components merged. Edges whose ends are in the same component
+ * are dropped from the working array after each round, so that memory
+ * decreases as the algorithm goes. Ties between equal weights are broken by
+ * edge order, which guarantees a forest. The forest of the proximity graph
+ * of features (features closer than a maximum distance) is computed without
+ * building the graph : candidate pairs are written directly to the
+ * arrays.</p>
+ * <p>The Steiner tree connecting a subset of terminal vertices is approximated
+ * with Mehlhorn's algorithm (within a factor 2 of the optimum) : a single
+ * multi-source search from all terminals gives the closest terminal of every
+ * vertex, the spanning tree of the terminals is computed on the distances
+ * through the edges joining two regions, its paths are expanded into the
+ * network, and non-terminal leaves are pruned.</p>
+ * Directed graphs are considered as undirected.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class SpanningForest {
+
+    /**
+     * Returns the edges of a minimum spanning forest of graph (a minimum
+     * spanning tree if graph is connected).
+     * @param graph the graph
+     * @return the edges of the forest
+     */
+    public static <V,E> List<E> minimumSpanningForest(Graph<V,E> graph) {
+        Recorder recorder = GraphMetrics.recorder("SpanningForest.minimumSpanningForest");
+        long time = recorder.start();
+        IntGraph<V,E> g = IntGraph.of(graph);
+        time = recorder.lap(Phase.INDEX_BUILD, time);
+        int[] selected = boruvka(g.vertexCount(), g.edgeCount(), g.edgeSource, g.edgeTarget, g.weights);
+        List<E> forest = new ArrayList<>(selected.length);
+        for (int e : selected) forest.add(g.edge(e));
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return forest;
+    }
+
+    /**
+     * Returns the minimum spanning forest of the graph connecting features
+     * whose distance is less or equal to maxDist, weighted by the distance
+     * (the graph built by GraphFactory.createGraph(features, maxDist)).
+     * The graph is not built : pairs of features found within maxDist in a
+     * STRtree are stored in primitive arrays (16 bytes per pair), so that
+     * tens of millions of candidate edges can be processed.
+     * @param features a collection of features
+     * @param maxDist the maximum distance to consider two features as connected
+     * @return the pairs of features connected by the forest, each pair being
+     * an array of two features
+     */
+    public static List<Feature[]> minimumSpanningForest(Collection<Feature> features, double maxDist) {
+        Recorder recorder = GraphMetrics.recorder("SpanningForest.minimumSpanningForest");
+        long time = recorder.start();
+        List<Feature> nodes = new ArrayList<>(features.size());
+        STRtree index = new STRtree();
+        for (Feature feature : features) {
+            Geometry g = feature.getGeometry();
+            if (g.isEmpty()) continue;
+            index.insert(g.getEnvelopeInternal(), nodes.size());
+            nodes.add(feature);
+        }
+        index.build();
+        time = recorder.lap(Phase.INDEX_BUILD, time);
+        int[] source = new int[Math.max(16, nodes.size())];
+        int[] target = new int[source.length];
+        double[] weight = new double[source.length];
+        int m = 0;
+        long candidates = 0;
+        for (int i = 0 ; i < nodes.size() ; i++) {
+            Geometry g = nodes.get(i).getGeometry();
+            Envelope env = new Envelope(g.getEnvelopeInternal());
+            env.expandBy(maxDist);
+            for (Object item : index.query(env)) {
+                int j = (Integer)item;
+                // each pair is considered once
+                if (j <= i) continue;
+                candidates++;
+                double d = g.distance(nodes.get(j).getGeometry());
+                if (d > maxDist) continue;
+                if (m == source.length) {
+                    source = Arrays.copyOf(source, m * 2);
+                    target = Arrays.copyOf(target, m * 2);
+                    weight = Arrays.copyOf(weight, m * 2);
+                }
+                source[m] = i;
+                target[m] = j;
+                weight[m++] = d;
+            }
+        }
+        time = recorder.lap(Phase.PREDICATE, time);
+        int[] selected = boruvka(nodes.size(), m, source, target, weight);
+        List<Feature[]> forest = new ArrayList<>(selected.length);
+        for (int e : selected) forest.add(new Feature[]{nodes.get(source[e]), nodes.get(target[e])});
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.add(Counter.FEATURES, features.size());
+        recorder.add(Counter.SKIPPED_EMPTY_GEOMETRIES, features.size() - nodes.size());
+        recorder.add(Counter.CANDIDATE_PAIRS, candidates);
+        recorder.add(Counter.PREDICATE_HITS, m);
+        recorder.add(Counter.NODES, nodes.size());
+        recorder.add(Counter.EDGES, m);
+        recorder.finish();
+        return forest;
+    }
+
+    /**
+     * Returns a minimum spanning forest of the graph given by its edge arrays,
+     * without building any graph object : edge i goes from source[i] to
+     * target[i] and has weight[i]. Only the arrays of the caller, the
+     * union-find arrays (proportional to the number of vertices) and the
+     * working array of the candidate edges, which shrinks at each round, are
+     * in memory, so that tens of millions of candidate edges can be
+     * processed (see also {@link #minimumSpanningForest(Collection, double)}).
+     * Input arrays are not modified.
+     * @param vertexCount number of vertices, numbered from 0
+     * @param source source vertex of each edge
+     * @param target target vertex of each edge
+     * @param weight weight of each edge
+     * @return the indices of the edges of the forest, in no particular order
+     */
+    public static int[] minimumSpanningForest(int vertexCount, int[] source, int[] target, double[] weight) {
+        assert source.length == target.length && source.length == weight.length :
+                "source, target and weight must have the same length";
+        Recorder recorder = GraphMetrics.recorder("SpanningForest.minimumSpanningForest");
+        long time = recorder.start();
+        int[] forest = boruvka(vertexCount, source.length, source, target, weight);
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.add(Counter.NODES, vertexCount);
+        recorder.add(Counter.EDGES, source.length);
+        recorder.finish();
+        return forest;
+    }
+
+    /**
+     * Returns the edges of a tree of graph connecting all the terminals
+     * (Mehlhorn's 2-approximation of the minimum Steiner tree). Terminals
+     * which are not in graph are ignored ; if terminals are in several
+     * components of graph, a forest connecting the terminals of each
+     * component is returned.
+     * @param graph the graph
+     * @param terminals the vertices to connect
+     * @return the edges of the tree
+     */
+    public static <V,E> List<E> steinerTree(Graph<V,E> graph, Collection<V> terminals) {
+        Recorder recorder = GraphMetrics.recorder("SpanningForest.steinerTree");
+        long time = recorder.start();
+        IntGraph<V,E> g = IntGraph.of(graph);
+        int n = g.vertexCount();
+        int m = g.edgeCount();
+        boolean[] isTerminal = new boolean[n];
+        List<Integer> terminalList = new ArrayList<>();
+        for (V t : terminals) {
+            int i = g.indexOf(t);
+            if (i >= 0 && !isTerminal[i]) {
+                isTerminal[i] = true;
+                terminalList.add(i);
+            }
+        }
+        if (terminalList.size() < 2) {
+            recorder.finish(graph);
+            return new ArrayList<>();
+        }
+
+        // 1 - closest terminal (region) of each vertex
+        double[] dist = new double[n];
+        int[] region = new int[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(region, -1);
+        Arrays.fill(pred, -1);
+        MinHeap heap = new MinHeap(Math.max(16, terminalList.size()));
+        for (int r = 0 ; r < terminalList.size() ; r++) {
+            int t = terminalList.get(r);
+            dist[t] = 0;
+            region[t] = r;
+            heap.add(t, 0);
+        }
+        boolean[] settled = new boolean[n];
+        while (!heap.isEmpty()) {
+            double d = heap.minKey();
+            int v = heap.poll();
+            if (settled[v] || d > dist[v]) continue;
+            settled[v] = true;
+            int vd = degree(g, v);
+            for (int k = 0 ; k < vd ; k++) {
+                int e = edge(g, v, k);
+                int w = g.opposite(e, v);
+                double nd = d + g.weights[e];
+                if (nd < dist[w]) {
+                    dist[w] = nd;
+                    region[w] = region[v];
+                    pred[w] = e;
+                    heap.add(w, nd);
+                }
+            }
+        }
+
+        // 2 - spanning forest of the terminals, through edges joining regions
+        int[] bridges = IntStream.range(0, m)
+                .filter(e -> region[g.edgeSource[e]] >= 0 && region[g.edgeTarget[e]] >= 0 &&
+                        region[g.edgeSource[e]] != region[g.edgeTarget[e]])
+                .toArray();
+        int[] rs = new int[bridges.length];
+        int[] rt = new int[bridges.length];
+        double[] rw = new double[bridges.length];
+        for (int i = 0 ; i < bridges.length ; i++) {
+            int e = bridges[i];
+            rs[i] = region[g.edgeSource[e]];
+            rt[i] = region[g.edgeTarget[e]];
+            rw[i] = dist[g.edgeSource[e]] + g.weights[e] + dist[g.edgeTarget[e]];
+        }
+        int[] selected = boruvka(terminalList.size(), rs.length, rs, rt, rw);
+
+        // 3 - expansion of the selected edges into network paths
+        boolean[] inTree = new boolean[m];
+        for (int i : selected) {
+            int e = bridges[i];
+            inTree[e] = true;
+            for (int v : new int[]{g.edgeSource[e], g.edgeTarget[e]}) {
+                while (pred[v] >= 0) {
+                    inTree[pred[v]] = true;
+                    v = g.opposite(pred[v], v);
+                }
+            }
+        }
+
+        // 4 - spanning forest of the expanded subgraph, then pruning of
+        // non-terminal leaves
+        int[] sub = IntStream.range(0, m).filter(e -> inTree[e]).toArray();
+        int[] ss = new int[sub.length];
+        int[] st = new int[sub.length];
+        double[] sw = new double[sub.length];
+        for (int i = 0 ; i < sub.length ; i++) {
+            ss[i] = g.edgeSource[sub[i]];
+            st[i] = g.edgeTarget[sub[i]];
+            sw[i] = g.weights[sub[i]];
+        }
+        Arrays.fill(inTree, false);
+        int[] treeDegree = new int[n];
+        for (int i : boruvka(n, ss.length, ss, st, sw)) {
+            inTree[sub[i]] = true;
+            treeDegree[ss[i]]++;
+            treeDegree[st[i]]++;
+        }
+        Deque<Integer> leaves = new ArrayDeque<>();
+        for (int v = 0 ; v < n ; v++) if (treeDegree[v] == 1 && !isTerminal[v]) leaves.add(v);
+        while (!leaves.isEmpty()) {
+            int v = leaves.poll();
+            int vd = degree(g, v);
+            for (int k = 0 ; k < vd ; k++) {
+                int e = edge(g, v, k);
+                if (!inTree[e]) continue;
+                inTree[e] = false;
+                treeDegree[v]--;
+                int w = g.opposite(e, v);
+                if (--treeDegree[w] == 1 && !isTerminal[w]) leaves.add(w);
+                break;
+            }
+        }
+        List<E> tree = new ArrayList<>();
+        for (int e = 0 ; e < m ; e++) if (inTree[e]) tree.add(g.edge(e));
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.finish(graph);
+        return tree;
+    }
+
+
+    /**
+     * Parallel Borůvka algorithm.
+     * @param n number of vertices
+     * @param m number of edges (arrays may be longer)
+     * @param source source vertex of each edge
+     * @param target target vertex of each edge
+     * @param weight weight of each edge
+     * @return the indices of the edges of a minimum spanning forest
+     */
+    static int[] boruvka(int n, int m, int[] source, int[] target, double[] weight) {
+        int[] parent = new int[n];
+        for (int v = 0 ; v < n ; v++) parent[v] = v;
+        int[] label = parent.clone();
+        // loops are never part of the forest
+        int[] remaining = IntStream.range(0, m).parallel()
+                .filter(e -> source[e] != target[e])
+                .toArray();
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        int[] forest = new int[Math.max(0, n - 1)];
+        int size = 0;
+        while (remaining.length > 0) {
+            for (int v = 0 ; v < n ; v++) cheapest.set(v, -1);
+            final int[] edges = remaining;
+            IntStream.range(0, edges.length).parallel().forEach(i -> {
+                int e = edges[i];
+                update(cheapest, label[source[e]], e, weight);
+                update(cheapest, label[target[e]], e, weight);
+            });
+            boolean merged = false;
+            for (int c = 0 ; c < n ; c++) {
+                int e = cheapest.get(c);
+                if (e < 0) continue;
+                int r1 = find(parent, source[e]);
+                int r2 = find(parent, target[e]);
+                if (r1 == r2) continue;
+                parent[Math.max(r1, r2)] = Math.min(r1, r2);
+                forest[size++] = e;
+                merged = true;
+            }
+            if (!merged) break;
+            for (int v = 0 ; v < n ; v++) label[v] = find(parent, v);
+            remaining = Arrays.stream(edges).parallel()
+                    .filter(e -> label[source[e]] != label[target[e]])
+                    .toArray();
+        }
+        return Arrays.copyOf(forest, size);
+    }
+
+    /**
+     * Replaces the cheapest edge of component c by e if e is cheaper.
+     */
+    private static void update(AtomicIntegerArray cheapest, int c, int e, double[] weight) {
+        while (true) {
+            int current = cheapest.get(c);
+            if (current >= 0 && !isCheaper(e, current, weight)) return;
+            if (cheapest.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    private static boolean isCheaper(int e1, int e2, double[] weight) {
+        return weight[e1] < weight[e2] || (weight[e1] == weight[e2] && e1 < e2);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // undirected adjacency : out-arcs, then in-arcs if g is directed
+
+    private static int degree(IntGraph<?,?> g, int v) {
+        int d = g.outOffsets[v+1] - g.outOffsets[v];
+        return g.directed ? d + g.inOffsets[v+1] - g.inOffsets[v] : d;
+    }
+
+    private static int edge(IntGraph<?,?> g, int v, int k) {
+        int out = g.outOffsets[v+1] - g.outOffsets[v];
+        return k < out ? g.outEdges[g.outOffsets[v] + k] : g.inEdges[g.inOffsets[v] + k - out];
+    }
+
+}
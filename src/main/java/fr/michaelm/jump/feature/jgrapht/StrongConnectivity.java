@@ -0,0 +1,331 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strongly connected components of an IntGraph.
+ * <p>Vertices which cannot be part of a cycle are first trimmed. Remaining
+ * vertices are processed with the forward-backward algorithm : the
+ * intersection of the vertices reachable from and to a pivot is a strongly
+ * connected component, and the three remaining subsets are independent
+ * subproblems processed in parallel in a ForkJoinPool. Small subproblems are
+ * processed with an iterative version of Tarjan's algorithm.</p>
+ * No recursion is used on the graph structure, so that deep networks do not
+ * cause StackOverflowError. The cancellation token of the monitor is checked
+ * by every task while it traverses the graph.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+final class StrongConnectivity {
+
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private static final byte FORWARD = 1;
+    private static final byte BACKWARD = 2;
+    private static final byte ON_STACK = 4;
+
+    private final IntGraph<?,?> graph;
+    private final Monitor monitor;
+    // subproblem identifier of each vertex (-1 when the vertex is processed)
+    private final int[] color;
+    private final int[] component;
+    private final byte[] mark;
+    private final int[] index;
+    private final int[] lowLink;
+    private final AtomicInteger colors = new AtomicInteger();
+    private final AtomicInteger components = new AtomicInteger();
+
+    private StrongConnectivity(IntGraph<?,?> graph, Monitor monitor) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.monitor = monitor;
+        this.color = new int[n];
+        this.component = new int[n];
+        this.mark = new byte[n];
+        this.index = new int[n];
+        this.lowLink = new int[n];
+        Arrays.fill(component, -1);
+    }
+
+
+    /**
+     * Computes the strongly connected component of each vertex of graph.
+     * Components are numbered from 0 in the order of their first vertex.
+     * @param graph the graph to analyse
+     * @return an array containing the component index of each vertex
+     */
+    static int[] components(IntGraph<?,?> graph) {
+        return components(graph, Monitor.NONE);
+    }
+
+    /**
+     * Computes the strongly connected component of each vertex of graph.
+     * Components are numbered from 0 in the order of their first vertex.
+     * @param graph the graph to analyse
+     * @param monitor monitor checked while the graph is traversed, without
+     *                listener as tasks run in parallel
+     * @return an array containing the component index of each vertex
+     * @throws java.util.concurrent.CancellationException if the operation
+     * has been cancelled
+     */
+    static int[] components(IntGraph<?,?> graph, Monitor monitor) {
+        StrongConnectivity scc = new StrongConnectivity(graph, monitor);
+        int[] remaining = scc.trim();
+        if (remaining.length > 0) {
+            ForkJoinPool.commonPool().invoke(scc.new Task(0, remaining));
+        }
+        return scc.normalize();
+    }
+
+
+    /**
+     * Returns the number of components of a component array.
+     */
+    static int count(int[] components) {
+        int max = -1;
+        for (int c : components) max = Math.max(max, c);
+        return max + 1;
+    }
+
+
+    /**
+     * Iteratively removes vertices without predecessor or without successor,
+     * each of them being a component by itself.
+     * @return the vertices remaining after trimming
+     */
+    private int[] trim() {
+        int n = graph.vertexCount();
+        int[] inDegree = new int[n];
+        int[] outDegree = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int v = 0 ; v < n ; v++) {
+            monitor.worked(v, 0);
+            for (int i = graph.outOffsets[v] ; i < graph.outOffsets[v+1] ; i++) {
+                if (graph.outTargets[i] != v) outDegree[v]++;
+            }
+            for (int i = graph.inOffsets[v] ; i < graph.inOffsets[v+1] ; i++) {
+                if (graph.inSources[i] != v) inDegree[v]++;
+            }
+            if (inDegree[v] == 0 || outDegree[v] == 0) {
+                queue[tail++] = v;
+                color[v] = -1;
+            }
+        }
+        int head = 0;
+        while (head < tail) {
+            monitor.worked(head, 0);
+            int v = queue[head++];
+            component[v] = components.getAndIncrement();
+            for (int i = graph.outOffsets[v] ; i < graph.outOffsets[v+1] ; i++) {
+                int w = graph.outTargets[i];
+                if (color[w] != -1 && --inDegree[w] == 0) {
+                    queue[tail++] = w;
+                    color[w] = -1;
+                }
+            }
+            for (int i = graph.inOffsets[v] ; i < graph.inOffsets[v+1] ; i++) {
+                int u = graph.inSources[i];
+                if (color[u] != -1 && --outDegree[u] == 0) {
+                    queue[tail++] = u;
+                    color[u] = -1;
+                }
+            }
+        }
+        int[] remaining = new int[n - tail];
+        int count = 0;
+        for (int v = 0 ; v < n ; v++) {
+            if (color[v] != -1) remaining[count++] = v;
+        }
+        return remaining;
+    }
+
+
+    /**
+     * Renumbers components from 0 in the order of their first vertex, so that
+     * the result does not depend on thread scheduling.
+     */
+    private int[] normalize() {
+        int[] ids = new int[components.get()];
+        Arrays.fill(ids, -1);
+        int next = 0;
+        for (int v = 0 ; v < component.length ; v++) {
+            int c = component[v];
+            if (ids[c] == -1) ids[c] = next++;
+            component[v] = ids[c];
+        }
+        return component;
+    }
+
+
+    /**
+     * A subproblem made of the vertices of a given color.
+     */
+    private final class Task extends RecursiveAction {
+
+        private final int taskColor;
+        private final int[] vertices;
+
+        Task(int taskColor, int[] vertices) {
+            this.taskColor = taskColor;
+            this.vertices = vertices;
+        }
+
+        @Override
+        protected void compute() {
+            List<Task> forked = new ArrayList<>();
+            Task task = this;
+            // continue with the largest part and fork the others, so that the
+            // depth of nested tasks stays logarithmic
+            while (task != null && task.vertices.length > SEQUENTIAL_THRESHOLD) {
+                Task largest = null;
+                List<Task> parts = task.split();
+                for (Task part : parts) {
+                    if (largest == null || part.vertices.length > largest.vertices.length) {
+                        largest = part;
+                    }
+                }
+                for (Task part : parts) {
+                    if (part != largest) {
+                        part.fork();
+                        forked.add(part);
+                    }
+                }
+                task = largest;
+            }
+            if (task != null) task.tarjan();
+            for (Task part : forked) part.join();
+        }
+
+        /**
+         * Extracts the component of a random pivot and splits remaining
+         * vertices into forward-only, backward-only and unreached subsets.
+         */
+        private List<Task> split() {
+            int pivot = vertices[ThreadLocalRandom.current().nextInt(vertices.length)];
+            int[] queue = new int[vertices.length];
+            reach(pivot, graph.outOffsets, graph.outTargets, FORWARD, queue);
+            reach(pivot, graph.inOffsets, graph.inSources, BACKWARD, queue);
+            int id = components.getAndIncrement();
+            int forwardCount = 0, backwardCount = 0, otherCount = 0;
+            for (int v : vertices) {
+                if (mark[v] == FORWARD) forwardCount++;
+                else if (mark[v] == BACKWARD) backwardCount++;
+                else if (mark[v] == 0) otherCount++;
+            }
+            int[] forward = new int[forwardCount];
+            int[] backward = new int[backwardCount];
+            int[] other = new int[otherCount];
+            int forwardColor = colors.incrementAndGet();
+            int backwardColor = colors.incrementAndGet();
+            int otherColor = colors.incrementAndGet();
+            forwardCount = backwardCount = otherCount = 0;
+            for (int v : vertices) {
+                if (mark[v] == (FORWARD | BACKWARD)) {
+                    component[v] = id;
+                    color[v] = -1;
+                } else if (mark[v] == FORWARD) {
+                    forward[forwardCount++] = v;
+                    color[v] = forwardColor;
+                } else if (mark[v] == BACKWARD) {
+                    backward[backwardCount++] = v;
+                    color[v] = backwardColor;
+                } else {
+                    other[otherCount++] = v;
+                    color[v] = otherColor;
+                }
+                mark[v] = 0;
+            }
+            List<Task> parts = new ArrayList<>(3);
+            if (forward.length > 0) parts.add(new Task(forwardColor, forward));
+            if (backward.length > 0) parts.add(new Task(backwardColor, backward));
+            if (other.length > 0) parts.add(new Task(otherColor, other));
+            return parts;
+        }
+
+        /**
+         * Breadth first search from pivot restricted to the vertices of this
+         * task color.
+         */
+        private void reach(int pivot, int[] offsets, int[] adjacent, byte flag, int[] queue) {
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = pivot;
+            mark[pivot] |= flag;
+            while (head < tail) {
+                monitor.worked(head, 0);
+                int v = queue[head++];
+                for (int i = offsets[v] ; i < offsets[v+1] ; i++) {
+                    int w = adjacent[i];
+                    if (color[w] == taskColor && (mark[w] & flag) == 0) {
+                        mark[w] |= flag;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Iterative Tarjan algorithm restricted to the vertices of this task
+         * color.
+         */
+        private void tarjan() {
+            int n = vertices.length;
+            int counter = 0;
+            int[] stack = new int[n];
+            int sp = 0;
+            int[] callStack = new int[n];
+            int[] arc = new int[n];
+            int csp = 0;
+            for (int root : vertices) {
+                if (index[root] != 0) continue;
+                index[root] = lowLink[root] = ++counter;
+                stack[sp++] = root;
+                mark[root] = ON_STACK;
+                callStack[csp] = root;
+                arc[csp++] = graph.outOffsets[root];
+                while (csp > 0) {
+                    monitor.worked(counter, 0);
+                    int v = callStack[csp-1];
+                    int i = arc[csp-1];
+                    if (i < graph.outOffsets[v+1]) {
+                        arc[csp-1] = i+1;
+                        int w = graph.outTargets[i];
+                        if (color[w] != taskColor) continue;
+                        if (index[w] == 0) {
+                            index[w] = lowLink[w] = ++counter;
+                            stack[sp++] = w;
+                            mark[w] = ON_STACK;
+                            callStack[csp] = w;
+                            arc[csp++] = graph.outOffsets[w];
+                        } else if (mark[w] == ON_STACK) {
+                            lowLink[v] = Math.min(lowLink[v], index[w]);
+                        }
+                    } else {
+                        csp--;
+                        if (csp > 0) {
+                            int u = callStack[csp-1];
+                            lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                        }
+                        if (lowLink[v] == index[v]) {
+                            int id = components.getAndIncrement();
+                            int w;
+                            do {
+                                w = stack[--sp];
+                                mark[w] = 0;
+                                component[w] = id;
+                            } while (w != v);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
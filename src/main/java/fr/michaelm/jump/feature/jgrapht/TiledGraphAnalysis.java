@@ -0,0 +1,375 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.connectivity.ConnectivityInspector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Connectivity and degree analysis of an undirected network processed tile by
+ * tile, for datasets whose graph does not fit in memory.
+ * <p>Features are partitioned into tiles by a {@link TileSource}, each
+ * feature belonging to exactly one tile. The analysis makes two passes :</p>
+ * <ol>
+ *     <li>features of each tile are scanned (without building a graph) to find
+ *     boundary nodes, i.e. feature ends lying outside the envelope of their
+ *     tile, which are the only nodes that several tiles may share ;</li>
+ *     <li>the graph of each tile is built, its connected components and node
+ *     degrees are computed, and only a summary is kept : component sizes,
+ *     boundary nodes with their local component and degree, and the vertices
+ *     matching the requested degree range.</li>
+ * </ol>
+ * Tiles are processed in parallel, so that at most one tile graph per core
+ * is in memory at a time. Local components are then stitched through the
+ * boundary overlay graph, whose vertices are the local components and whose
+ * edges are the boundary nodes they share.
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class TiledGraphAnalysis {
+
+    /**
+     * Provides features tile by tile. Each feature must be returned by exactly
+     * one tile. Features of a tile may be read from an external storage each
+     * time getFeatures is called (it is called twice per tile).
+     */
+    public interface TileSource {
+
+        int getTileCount();
+
+        /**
+         * Returns the envelope of tile. Tile envelopes are expected to
+         * partition the space : a point belongs to the tile envelope if
+         * minX &lt;= x &lt; maxX and minY &lt;= y &lt; maxY.
+         */
+        Envelope getTileEnvelope(int tile);
+
+        Collection<Feature> getFeatures(int tile);
+    }
+
+
+    /**
+     * TileSource partitioning an in-memory collection of features with a
+     * regular grid. Each feature belongs to the cell containing its first
+     * coordinate.
+     */
+    public static class GridTileSource implements TileSource {
+
+        private final Envelope envelope;
+        private final int columns;
+        private final int rows;
+        private final List<List<Feature>> tiles;
+
+        public GridTileSource(Collection<Feature> features, int columns, int rows) {
+            assert columns > 0 && rows > 0 : "grid must have at least one column and one row";
+            this.columns = columns;
+            this.rows = rows;
+            this.envelope = new Envelope();
+            for (Feature f : features) envelope.expandToInclude(f.getGeometry().getEnvelopeInternal());
+            this.tiles = new ArrayList<>(columns * rows);
+            for (int i = 0 ; i < columns * rows ; i++) tiles.add(new ArrayList<>());
+            for (Feature f : features) {
+                Geometry g = f.getGeometry();
+                tiles.get(g.isEmpty() ? 0 : cell(g.getCoordinate())).add(f);
+            }
+        }
+
+        private int cell(Coordinate c) {
+            int i = (int)((c.x - envelope.getMinX()) / envelope.getWidth() * columns);
+            int j = (int)((c.y - envelope.getMinY()) / envelope.getHeight() * rows);
+            i = Math.max(0, Math.min(columns - 1, i));
+            j = Math.max(0, Math.min(rows - 1, j));
+            return j * columns + i;
+        }
+
+        @Override
+        public int getTileCount() {
+            return columns * rows;
+        }
+
+        @Override
+        public Envelope getTileEnvelope(int tile) {
+            int i = tile % columns;
+            int j = tile / columns;
+            double w = envelope.getWidth() / columns;
+            double h = envelope.getHeight() / rows;
+            // outer tiles are extended so that extreme coordinates are inside a tile
+            double minX = i == 0 ? Double.NEGATIVE_INFINITY : envelope.getMinX() + i * w;
+            double maxX = i == columns - 1 ? Double.POSITIVE_INFINITY : envelope.getMinX() + (i + 1) * w;
+            double minY = j == 0 ? Double.NEGATIVE_INFINITY : envelope.getMinY() + j * h;
+            double maxY = j == rows - 1 ? Double.POSITIVE_INFINITY : envelope.getMinY() + (j + 1) * h;
+            return new Envelope(minX, maxX, minY, maxY);
+        }
+
+        @Override
+        public Collection<Feature> getFeatures(int tile) {
+            return tiles.get(tile);
+        }
+    }
+
+
+    private final int tileCount;
+    private final long nodeCount;
+    private final long edgeCount;
+    private final int boundaryNodeCount;
+    private final int[] componentSizes;
+    private final List<Geometry> vertices;
+    private final SortedMap<Integer,Long> degreeHistogram;
+
+    private TiledGraphAnalysis(int tileCount, long nodeCount, long edgeCount, int boundaryNodeCount,
+                               int[] componentSizes, List<Geometry> vertices,
+                               SortedMap<Integer,Long> degreeHistogram) {
+        this.tileCount = tileCount;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.boundaryNodeCount = boundaryNodeCount;
+        this.componentSizes = componentSizes;
+        this.vertices = vertices;
+        this.degreeHistogram = degreeHistogram;
+    }
+
+
+    /**
+     * Analyses features partitioned with a columns x rows grid.
+     * @param features the collection of features
+     * @param columns number of columns of the grid
+     * @param rows number of rows of the grid
+     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+     * @param minDegree the minimum degree of vertices to return (inclusive)
+     * @param maxDegree the maximum degree of vertices to return (inclusive)
+     */
+    public static TiledGraphAnalysis analyze(Collection<Feature> features, int columns, int rows,
+                                             boolean dim3, int minDegree, int maxDegree) {
+        return analyze(new GridTileSource(features, columns, rows), dim3, minDegree, maxDegree);
+    }
+
+
+    /**
+     * Analyses the undirected graph formed by the features of source, tile by
+     * tile.
+     * @param source the source of features
+     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+     * @param minDegree the minimum degree of vertices to return (inclusive)
+     * @param maxDegree the maximum degree of vertices to return (inclusive)
+     */
+    public static TiledGraphAnalysis analyze(TileSource source, boolean dim3,
+                                             int minDegree, int maxDegree) {
+        assert minDegree >= 0 : "" + minDegree + " : minDegree must be positive or null";
+        assert maxDegree >= minDegree : "" + maxDegree + " : maxDegree must more or equals to minDegree";
+        int tileCount = source.getTileCount();
+
+        // pass 1 : boundary nodes
+        Set<INode> boundary = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, tileCount).parallel().forEach(t -> {
+            Envelope env = source.getTileEnvelope(t);
+            for (Feature f : source.getFeatures(t)) {
+                Geometry g = f.getGeometry();
+                if (g.isEmpty()) continue;
+                Coordinate[] cc = g.getCoordinates();
+                if (!contains(env, cc[0])) boundary.add(node(cc[0], dim3));
+                if (g.getDimension() > 0 && !contains(env, cc[cc.length-1])) {
+                    boundary.add(node(cc[cc.length-1], dim3));
+                }
+            }
+        });
+
+        // pass 2 : tile summaries
+        List<TileSummary> summaries = IntStream.range(0, tileCount).parallel()
+                .mapToObj(t -> new TileSummary(
+                        GraphFactory.createUndirectedGraph(source.getFeatures(t), dim3),
+                        boundary, minDegree, maxDegree))
+                .collect(Collectors.toList());
+
+        // stitching through the boundary overlay
+        int[] offsets = new int[tileCount + 1];
+        for (int t = 0 ; t < tileCount ; t++) {
+            offsets[t+1] = offsets[t] + summaries.get(t).componentSizes.length;
+        }
+        int[] parent = new int[offsets[tileCount]];
+        for (int i = 0 ; i < parent.length ; i++) parent[i] = i;
+        Map<INode,Integer> firstComponent = new HashMap<>();
+        Map<INode,Integer> degrees = new HashMap<>();
+        Map<INode,Integer> occurrences = new HashMap<>();
+        long nodeCount = 0;
+        long edgeCount = 0;
+        List<Geometry> vertices = new ArrayList<>();
+        SortedMap<Integer,Long> histogram = new TreeMap<>();
+        for (int t = 0 ; t < tileCount ; t++) {
+            TileSummary summary = summaries.get(t);
+            nodeCount += summary.nodeCount;
+            edgeCount += summary.edgeCount;
+            vertices.addAll(summary.vertices);
+            for (Map.Entry<Integer,Long> entry : summary.histogram.entrySet()) {
+                histogram.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+            for (int i = 0 ; i < summary.boundaryNodes.size() ; i++) {
+                INode node = summary.boundaryNodes.get(i);
+                int component = offsets[t] + summary.boundaryComponents[i];
+                Integer first = firstComponent.putIfAbsent(node, component);
+                if (first != null) union(parent, first, component);
+                degrees.merge(node, summary.boundaryDegrees[i], Integer::sum);
+                occurrences.merge(node, 1, Integer::sum);
+            }
+        }
+        long[] sizes = new long[parent.length];
+        for (int t = 0 ; t < tileCount ; t++) {
+            int[] local = summaries.get(t).componentSizes;
+            for (int i = 0 ; i < local.length ; i++) sizes[find(parent, offsets[t] + i)] += local[i];
+        }
+        int sharedCount = 0;
+        for (Map.Entry<INode,Integer> entry : occurrences.entrySet()) {
+            INode node = entry.getKey();
+            int duplicates = entry.getValue() - 1;
+            // a boundary node may be reached from a single tile
+            if (duplicates > 0) sharedCount++;
+            nodeCount -= duplicates;
+            sizes[find(parent, firstComponent.get(node))] -= duplicates;
+            int degree = degrees.get(node);
+            histogram.merge(degree, 1L, Long::sum);
+            if (degree >= minDegree && degree <= maxDegree) vertices.add(node.getGeometry());
+        }
+        int componentCount = 0;
+        for (int i = 0 ; i < parent.length ; i++) {
+            if (find(parent, i) == i) componentCount++;
+        }
+        int[] componentSizes = new int[componentCount];
+        componentCount = 0;
+        for (int i = 0 ; i < parent.length ; i++) {
+            if (parent[i] == i) componentSizes[componentCount++] = (int)sizes[i];
+        }
+        Arrays.sort(componentSizes);
+        for (int i = 0, j = componentSizes.length - 1 ; i < j ; i++, j--) {
+            int tmp = componentSizes[i];
+            componentSizes[i] = componentSizes[j];
+            componentSizes[j] = tmp;
+        }
+        return new TiledGraphAnalysis(tileCount, nodeCount, edgeCount, sharedCount,
+                componentSizes, vertices, histogram);
+    }
+
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of nodes shared by several tiles.
+     */
+    public int getBoundaryNodeCount() {
+        return boundaryNodeCount;
+    }
+
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Returns true if the whole network is connected.
+     */
+    public boolean isConnected() {
+        return componentSizes.length <= 1;
+    }
+
+    /**
+     * Returns the number of nodes of each connected component, in decreasing
+     * order.
+     */
+    public int[] getComponentSizes() {
+        return componentSizes.clone();
+    }
+
+    /**
+     * Returns the geometries of the vertices whose degree is in the range
+     * given to the analysis.
+     */
+    public List<Geometry> getVertices() {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Returns the number of nodes of each degree.
+     */
+    public SortedMap<Integer,Long> getDegreeHistogram() {
+        return Collections.unmodifiableSortedMap(degreeHistogram);
+    }
+
+
+    private static boolean contains(Envelope env, Coordinate c) {
+        return c.x >= env.getMinX() && c.x < env.getMaxX() && c.y >= env.getMinY() && c.y < env.getMaxY();
+    }
+
+    private static INode node(Coordinate c, boolean dim3) {
+        return dim3 ? new Node3D(c) : new Node2D(c);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int i, int j) {
+        int ri = find(parent, i);
+        int rj = find(parent, j);
+        if (ri != rj) parent[Math.max(ri, rj)] = Math.min(ri, rj);
+    }
+
+
+    /**
+     * What is kept from the graph of a tile once it has been analysed.
+     */
+    private static final class TileSummary {
+
+        final long nodeCount;
+        final long edgeCount;
+        final int[] componentSizes;
+        final List<INode> boundaryNodes = new ArrayList<>();
+        final int[] boundaryComponents;
+        final int[] boundaryDegrees;
+        final List<Geometry> vertices = new ArrayList<>();
+        final Map<Integer,Long> histogram = new HashMap<>();
+
+        TileSummary(Graph<INode,FeatureAsEdge> graph, Set<INode> boundary, int minDegree, int maxDegree) {
+            nodeCount = graph.vertexSet().size();
+            edgeCount = graph.edgeSet().size();
+            List<Set<INode>> sets = new ConnectivityInspector<>(graph).connectedSets();
+            componentSizes = new int[sets.size()];
+            List<Integer> components = new ArrayList<>();
+            List<Integer> degrees = new ArrayList<>();
+            for (int i = 0 ; i < sets.size() ; i++) {
+                componentSizes[i] = sets.get(i).size();
+                for (INode node : sets.get(i)) {
+                    int degree = graph.degreeOf(node);
+                    if (boundary.contains(node)) {
+                        boundaryNodes.add(node);
+                        components.add(i);
+                        degrees.add(degree);
+                    } else {
+                        histogram.merge(degree, 1L, Long::sum);
+                        if (degree >= minDegree && degree <= maxDegree) vertices.add(node.getGeometry());
+                    }
+                }
+            }
+            boundaryComponents = components.stream().mapToInt(Integer::intValue).toArray();
+            boundaryDegrees = degrees.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+}
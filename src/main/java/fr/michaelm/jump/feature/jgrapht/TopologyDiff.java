@@ -0,0 +1,369 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Counter;
+import fr.michaelm.jump.feature.jgrapht.GraphOperationStats.Phase;
+
+/**
+ * Differences between two versions of a network of linear features.
+ * <p>Edges of both versions are matched either by the value of an attribute
+ * (stable from one delivery to the next) or, if no attribute is given, by
+ * their geometry, features having the same geometry being matched one to
+ * one. Feature IDs are never used, as OpenJUMP assigns them at
+ * runtime. Each version is reduced to edge signatures (identifier, end nodes
+ * and length) computed in parallel, plus a compact node table with degrees
+ * and connected components : no jgrapht graph is built. The comparison does
+ * not stream : the signatures and node tables of both versions are kept in
+ * memory during the whole computation.</p>
+ * The diff reports :
+ * <ul>
+ *     <li>added and removed edges ;</li>
+ *     <li>edges whose length changed, and edges whose end nodes changed ;</li>
+ *     <li>merged components (a component of the new version containing nodes
+ *     of several components of the old version) and split components (a
+ *     component of the old version whose nodes are in several components
+ *     of the new version), each one being described by one node of each
+ *     part ;</li>
+ *     <li>new dangles, i.e. nodes of degree 1 in the new version which were
+ *     not of degree 1 in the old version.</li>
+ * </ul>
+ * @author Michael Michaud
+ * @version 1.0 (2026-10-19)
+ */
+public class TopologyDiff {
+
+    private final List<Feature> addedEdges;
+    private final List<Feature> removedEdges;
+    private final List<Feature> changedWeights;
+    private final List<Feature> changedEndpoints;
+    private final List<List<INode>> mergedComponents;
+    private final List<List<INode>> splitComponents;
+    private final List<INode> newDangles;
+
+    private TopologyDiff(List<Feature> addedEdges, List<Feature> removedEdges,
+                         List<Feature> changedWeights, List<Feature> changedEndpoints,
+                         List<List<INode>> mergedComponents, List<List<INode>> splitComponents,
+                         List<INode> newDangles) {
+        this.addedEdges = addedEdges;
+        this.removedEdges = removedEdges;
+        this.changedWeights = changedWeights;
+        this.changedEndpoints = changedEndpoints;
+        this.mergedComponents = mergedComponents;
+        this.splitComponents = splitComponents;
+        this.newDangles = newDangles;
+    }
+
+
+    /**
+     * Computes the differences between two versions of a network, edges being
+     * matched by their geometry (whatever the direction of digitization). As
+     * the geometry is the identifier, a modified edge is reported as a
+     * removed edge and an added edge, and changed weights and end nodes are
+     * never reported.
+     * @param oldVersion features of the old version
+     * @param newVersion features of the new version
+     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+     */
+    public static TopologyDiff compute(Collection<Feature> oldVersion, Collection<Feature> newVersion,
+                                       boolean dim3) {
+        return diff(oldVersion, newVersion, dim3, null);
+    }
+
+    /**
+     * Computes the differences between two versions of a network.
+     * @param oldVersion features of the old version
+     * @param newVersion features of the new version
+     * @param dim3 true if c(x,y,z) and c(x,y,z') are considered as different nodes
+     * @param idAttribute name of the attribute identifying edges in both
+     *                    versions
+     * @throws IllegalArgumentException if idAttribute is null or if two
+     * features of a version have the same identifier
+     */
+    public static TopologyDiff compute(Collection<Feature> oldVersion, Collection<Feature> newVersion,
+                                       boolean dim3, String idAttribute) {
+        if (idAttribute == null) {
+            throw new IllegalArgumentException("idAttribute is required to match edges by identifier");
+        }
+        return diff(oldVersion, newVersion, dim3, idAttribute);
+    }
+
+    /**
+     * Matches edges by idAttribute, or by geometry if idAttribute is null.
+     */
+    private static TopologyDiff diff(Collection<Feature> oldVersion, Collection<Feature> newVersion,
+                                     boolean dim3, String idAttribute) {
+        Recorder recorder = GraphMetrics.recorder("TopologyDiff.compute");
+        long time = recorder.start();
+        Version v1 = new Version(oldVersion, dim3, idAttribute);
+        Version v2 = new Version(newVersion, dim3, idAttribute);
+        time = recorder.lap(Phase.GEOMETRY_ACCESS, time);
+
+        List<Feature> added = new ArrayList<>();
+        List<Feature> removed = new ArrayList<>();
+        List<Feature> changedWeights = new ArrayList<>();
+        List<Feature> changedEndpoints = new ArrayList<>();
+        for (Map.Entry<Object,List<Signature>> entry : v2.edges.entrySet()) {
+            List<Signature> copies1 = v1.edges.getOrDefault(entry.getKey(), Collections.emptyList());
+            List<Signature> copies2 = entry.getValue();
+            // edges matched by geometry may only differ by their direction
+            if (idAttribute != null && !copies1.isEmpty()) {
+                Signature s1 = copies1.get(0);
+                Signature s2 = copies2.get(0);
+                if (!s1.start.equals(s2.start) || !s1.end.equals(s2.end)) changedEndpoints.add(s2.feature);
+                if (Double.compare(s1.weight, s2.weight) != 0) changedWeights.add(s2.feature);
+            }
+            surplus(copies2, copies1, added);
+        }
+        for (Map.Entry<Object,List<Signature>> entry : v1.edges.entrySet()) {
+            surplus(entry.getValue(), v2.edges.getOrDefault(entry.getKey(), Collections.emptyList()), removed);
+        }
+
+        // components : compare the components of the nodes common to both versions
+        Map<Integer,Map<Integer,INode>> oldByNew = new LinkedHashMap<>();
+        Map<Integer,Map<Integer,INode>> newByOld = new LinkedHashMap<>();
+        List<INode> dangles = new ArrayList<>();
+        for (Map.Entry<INode,Integer> entry : v2.nodes.entrySet()) {
+            INode node = entry.getKey();
+            int i2 = entry.getValue();
+            Integer i1 = v1.nodes.get(node);
+            if (v2.degree[i2] == 1 && (i1 == null || v1.degree[i1] != 1)) dangles.add(node);
+            if (i1 == null) continue;
+            int c1 = v1.component[i1];
+            int c2 = v2.component[i2];
+            oldByNew.computeIfAbsent(c2, c -> new LinkedHashMap<>()).putIfAbsent(c1, node);
+            newByOld.computeIfAbsent(c1, c -> new LinkedHashMap<>()).putIfAbsent(c2, node);
+        }
+        List<List<INode>> merged = parts(oldByNew);
+        List<List<INode>> split = parts(newByOld);
+        recorder.stop(Phase.ALGORITHM, time);
+        recorder.add(Counter.FEATURES, oldVersion.size() + newVersion.size());
+        recorder.add(Counter.NODES, v1.nodes.size() + v2.nodes.size());
+        recorder.add(Counter.EDGES, v1.edgeCount + v2.edgeCount);
+        recorder.finish();
+        return new TopologyDiff(added, removed, changedWeights, changedEndpoints, merged, split, dangles);
+    }
+
+    /**
+     * Adds to list the features of copies which have no counterpart in
+     * others (several features may have the same geometry).
+     */
+    private static void surplus(List<Signature> copies, List<Signature> others, List<Feature> list) {
+        for (int i = others.size() ; i < copies.size() ; i++) list.add(copies.get(i).feature);
+    }
+
+    /**
+     * Returns one node of each part of the components made of several parts.
+     */
+    private static List<List<INode>> parts(Map<Integer,Map<Integer,INode>> map) {
+        List<List<INode>> list = new ArrayList<>();
+        for (Map<Integer,INode> parts : map.values()) {
+            if (parts.size() > 1) list.add(new ArrayList<>(parts.values()));
+        }
+        return list;
+    }
+
+
+    /**
+     * Features of the new version which do not exist in the old version.
+     */
+    public List<Feature> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    /**
+     * Features of the old version which do not exist in the new version.
+     */
+    public List<Feature> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    /**
+     * Features of the new version whose length changed.
+     */
+    public List<Feature> getChangedWeights() {
+        return Collections.unmodifiableList(changedWeights);
+    }
+
+    /**
+     * Features of the new version whose start node or end node changed.
+     */
+    public List<Feature> getChangedEndpoints() {
+        return Collections.unmodifiableList(changedEndpoints);
+    }
+
+    /**
+     * Components of the new version joining several components of the old
+     * version. Each component is described by one node of each old component.
+     */
+    public List<List<INode>> getMergedComponents() {
+        return Collections.unmodifiableList(mergedComponents);
+    }
+
+    /**
+     * Components of the old version divided into several components in the
+     * new version. Each component is described by one node of each new
+     * component.
+     */
+    public List<List<INode>> getSplitComponents() {
+        return Collections.unmodifiableList(splitComponents);
+    }
+
+    /**
+     * Nodes of degree 1 in the new version which were not of degree 1 in the
+     * old version.
+     */
+    public List<INode> getNewDangles() {
+        return Collections.unmodifiableList(newDangles);
+    }
+
+    /**
+     * Returns true if both versions have the same edges, with the same end
+     * nodes and lengths.
+     */
+    public boolean isEmpty() {
+        return addedEdges.isEmpty() && removedEdges.isEmpty() &&
+                changedWeights.isEmpty() && changedEndpoints.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TopologyDiff : " + addedEdges.size() + " added, " + removedEdges.size() + " removed, " +
+                changedWeights.size() + " weight changes, " + changedEndpoints.size() + " endpoint changes, " +
+                mergedComponents.size() + " merged components, " + splitComponents.size() +
+                " split components, " + newDangles.size() + " new dangles";
+    }
+
+
+    /**
+     * Signature of an edge : identifier, end nodes and length.
+     */
+    private static final class Signature {
+        final Object id;
+        final Feature feature;
+        final INode start;
+        final INode end;
+        final double weight;
+
+        Signature(Object id, Feature feature, INode start, INode end, double weight) {
+            this.id = id;
+            this.feature = feature;
+            this.start = start;
+            this.end = end;
+            this.weight = weight;
+        }
+    }
+
+
+    /**
+     * Identifier of an edge matched by geometry. Geometries are equal if they
+     * have the same coordinates once normalized, so that a reversed line
+     * matches the original line.
+     */
+    private static final class GeometryKey {
+        final Geometry geometry;
+        final int hash;
+
+        GeometryKey(Geometry geometry) {
+            this.geometry = geometry;
+            // the envelope does not depend on the direction of the line
+            this.hash = geometry.getEnvelopeInternal().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GeometryKey)) return false;
+            GeometryKey other = (GeometryKey)obj;
+            return hash == other.hash && (geometry.equalsExact(other.geometry) ||
+                    geometry.equalsNorm(other.geometry));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return geometry.toString();
+        }
+    }
+
+
+    /**
+     * Signatures of the edges of a version, and degree and component of its
+     * nodes.
+     */
+    private static final class Version {
+
+        // several edges may have the same geometry, but not the same identifier
+        final Map<Object,List<Signature>> edges;
+        final int edgeCount;
+        final Map<INode,Integer> nodes = new LinkedHashMap<>();
+        final int[] degree;
+        final int[] component;
+
+        Version(Collection<Feature> features, boolean dim3, String idAttribute) {
+            List<Signature> signatures = features.parallelStream()
+                    .filter(f -> !f.getGeometry().isEmpty() && f.getGeometry().getDimension() > 0)
+                    .map(f -> signature(f, dim3, idAttribute))
+                    .collect(Collectors.toList());
+            edges = new LinkedHashMap<>(Math.max(16, (int)(signatures.size()/0.75f) + 1));
+            int[] source = new int[signatures.size()];
+            int[] target = new int[signatures.size()];
+            for (int i = 0 ; i < signatures.size() ; i++) {
+                Signature s = signatures.get(i);
+                List<Signature> copies = edges.computeIfAbsent(s.id, id -> new ArrayList<>(1));
+                if (idAttribute != null && !copies.isEmpty()) {
+                    throw new IllegalArgumentException("duplicate edge identifier: " + s.id);
+                }
+                copies.add(s);
+                source[i] = index(s.start);
+                target[i] = index(s.end);
+            }
+            edgeCount = signatures.size();
+            int n = nodes.size();
+            degree = new int[n];
+            int[] parent = new int[n];
+            for (int v = 0 ; v < n ; v++) parent[v] = v;
+            for (int i = 0 ; i < source.length ; i++) {
+                degree[source[i]]++;
+                degree[target[i]]++;
+                int r1 = find(parent, source[i]);
+                int r2 = find(parent, target[i]);
+                if (r1 != r2) parent[Math.max(r1, r2)] = Math.min(r1, r2);
+            }
+            component = new int[n];
+            for (int v = 0 ; v < n ; v++) component[v] = find(parent, v);
+        }
+
+        private int index(INode node) {
+            Integer i = nodes.putIfAbsent(node, nodes.size());
+            return i == null ? nodes.size() - 1 : i;
+        }
+
+        private static Signature signature(Feature f, boolean dim3, String idAttribute) {
+            Geometry g = f.getGeometry();
+            Coordinate[] cc = g.getCoordinates();
+            Object id = idAttribute == null ? new GeometryKey(g) : f.getAttribute(idAttribute);
+            return new Signature(id, f,
+                    dim3 ? new Node3D(cc[0]) : new Node2D(cc[0]),
+                    dim3 ? new Node3D(cc[cc.length-1]) : new Node2D(cc[cc.length-1]),
+                    g.getLength());
+        }
+
+        private static int find(int[] parent, int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.junit.Test;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class TestBetweennessCentrality extends JumpJGraphTTest {
+
+  @Test
+  public void testEdgeBetweenness() {
+    Feature f1 = createFeature("AB", 0, 0, 10, 0);
+    Feature f2 = createFeature("BC", 10, 0, 20, 0);
+    Feature f3 = createFeature("BD", 10, 0, 10, 10);
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(f1, f2, f3));
+    Map<FeatureAsEdge,Double> scores = BetweennessCentrality.edgeBetweenness(graph);
+    // each edge of a star with 3 branches is on the path of 3 pairs
+    Assert.equals(3, scores.size());
+    for (double score : scores.values()) {
+      Assert.isTrue(Math.abs(score - 3.0) < 1e-9);
+    }
+    Map<FeatureAsEdge,Double> local = BetweennessCentrality.edgeBetweennessSample(
+        graph, Integer.MAX_VALUE, 15.0, 0L);
+    // with a 15 radius, only pairs of adjacent nodes are considered
+    for (double score : local.values()) {
+      Assert.isTrue(Math.abs(score - 1.0) < 1e-9);
+    }
+  }
+
+}
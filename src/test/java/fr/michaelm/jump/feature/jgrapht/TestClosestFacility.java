@@ -0,0 +1,81 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestClosestFacility extends JumpJGraphTTest {
+
+  private final List<Feature> network = Arrays.asList(
+      createFeature("AB", 0, 0, 10, 0),
+      createFeature("BC", 10, 0, 20, 0),
+      createFeature("CD", 20, 0, 30, 0)
+  );
+
+  private final List<Coordinate> facilities = Arrays.asList(new Coordinate(1, 0), new Coordinate(29, 0));
+
+  @Test
+  public void testUndirectedAssignment() {
+    ClosestFacility cf = new ClosestFacility(GraphFactory.createGraph(network), 2);
+    ClosestFacility.Assignment assignment = cf.assign(facilities, Arrays.asList(
+        new Coordinate(5, 1), new Coordinate(21, 0), new Coordinate(14, 0), new Coordinate(50, 50)
+    ));
+    Assert.equals(0, assignment.getFacility(0));
+    Assert.equals(4.0, assignment.getCost(0));
+    Assert.equals(1, assignment.getFacility(1));
+    Assert.equals(8.0, assignment.getCost(1));
+    Assert.equals(0, assignment.getFacility(2));
+    Assert.equals(13.0, assignment.getCost(2));
+    Assert.equals(-1, assignment.getFacility(3));
+    Assert.equals(25.0, assignment.getTotalCost());
+    Assert.equals(2, assignment.getDemandCounts(2)[0]);
+  }
+
+  @Test
+  public void testDirectedAssignment() {
+    ClosestFacility cf = new ClosestFacility(GraphFactory.createDirectedGraph(network, false), 2);
+    ClosestFacility.Assignment assignment = cf.assign(facilities, Arrays.asList(
+        new Coordinate(0.5, 0), new Coordinate(5, 0), new Coordinate(21, 0)
+    ));
+    Assert.equals(0, assignment.getFacility(0));
+    Assert.equals(0.5, assignment.getCost(0));
+    Assert.equals(1, assignment.getFacility(1));
+    Assert.equals(24.0, assignment.getCost(1));
+    Assert.equals(8.0, assignment.getCost(2));
+  }
+
+  @Test
+  public void testPMedian() {
+    ClosestFacility cf = new ClosestFacility(GraphFactory.createGraph(network), 2);
+    int[] solution = cf.pMedian(
+        Arrays.asList(new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(20, 0), new Coordinate(30, 0)),
+        Arrays.asList(new Coordinate(1, 0), new Coordinate(2, 0), new Coordinate(28, 0), new Coordinate(29, 0)),
+        null, 2, 10
+    );
+    Assert.isTrue(Arrays.equals(new int[]{0, 3}, solution));
+  }
+
+  @Test
+  public void testPMedianTwoComponents() {
+    List<Feature> islands = Arrays.asList(
+        createFeature("AB", 0, 0, 10, 0),
+        createFeature("BC", 10, 0, 20, 0),
+        createFeature("CD", 20, 0, 30, 0),
+        createFeature("EF", 100, 0, 110, 0)
+    );
+    ClosestFacility cf = new ClosestFacility(GraphFactory.createGraph(islands), 2);
+    // every candidate leaves some demand points unreachable : the island must
+    // get a facility, then B is the best location on the main component
+    int[] solution = cf.pMedian(
+        Arrays.asList(new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(30, 0), new Coordinate(105, 0)),
+        Arrays.asList(new Coordinate(1, 0), new Coordinate(29, 0), new Coordinate(104, 0), new Coordinate(106, 0)),
+        null, 2, 10
+    );
+    Assert.isTrue(Arrays.equals(new int[]{1, 3}, solution));
+  }
+
+}
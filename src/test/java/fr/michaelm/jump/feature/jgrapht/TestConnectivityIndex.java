@@ -0,0 +1,56 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestConnectivityIndex extends JumpJGraphTTest {
+
+  @Test
+  public void testComponents() {
+    Feature f1 = createFeature("A", 0, 0, 10, 0);
+    Feature f2 = createFeature("B", 10, 0, 20, 10);
+    Feature f3 = createFeature("C", 50, 50, 60, 50);
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(
+        Arrays.asList(f1, f2, f3), false
+    );
+    ConnectivityIndex index = ConnectivityIndex.of(graph);
+    Assert.equals(2, index.getComponentCount());
+    Assert.isTrue(index.isConnected(new Node2D(new Coordinate(0, 0)), new Node2D(new Coordinate(20, 10))));
+    Assert.isTrue(!index.isConnected(new Node2D(new Coordinate(0, 0)), new Node2D(new Coordinate(50, 50))));
+    Assert.isTrue(index.isConnected(new FeatureAsEdge(f1), new FeatureAsEdge(f2)));
+    Assert.equals(-1, index.componentOf(new Node2D(new Coordinate(1, 1))));
+    int c = index.componentOf(new FeatureAsEdge(f1));
+    Assert.equals(c, index.getLargestComponent());
+    Assert.equals(3, index.getComponentSize(c));
+    Assert.equals(2, index.getComponentEdgeCount(c));
+    Assert.equals(new Envelope(0, 20, 0, 10), index.getComponentEnvelope(c));
+  }
+
+  @Test
+  public void testBridges() {
+    // a triangle, two parallel edges and a dangling edge
+    Feature f1 = createFeature("AB", 0, 0, 10, 0);
+    Feature f2 = createFeature("BC", 10, 0, 10, 10);
+    Feature f3 = createFeature("CA", 10, 10, 0, 0);
+    Feature f4 = createFeature("CD", 10, 10, 20, 10);
+    Feature f5 = createFeature("CD2", 10, 10, 0, 20, 10, 0);
+    Feature f6 = createFeature("DE", 20, 10, 30, 10);
+    ConnectivityIndex index = ConnectivityIndex.of(Arrays.asList(f1, f2, f3, f4, f5, f6), false);
+    Assert.equals(1, index.getComponentCount());
+    Assert.equals(Collections.singletonList(new FeatureAsEdge(f6)), index.getBridges());
+    Assert.isTrue(index.isBridge(new FeatureAsEdge(f6)));
+    Assert.isTrue(!index.isBridge(new FeatureAsEdge(f4)));
+    Assert.equals(2, index.getArticulationPoints().size());
+    Assert.isTrue(index.isArticulationPoint(new Node2D(new Coordinate(10, 10))));
+    Assert.isTrue(index.isArticulationPoint(new Node2D(new Coordinate(20, 10))));
+    Assert.isTrue(!index.isArticulationPoint(new Node2D(new Coordinate(0, 0))));
+  }
+
+}
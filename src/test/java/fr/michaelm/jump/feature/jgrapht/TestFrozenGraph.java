@@ -0,0 +1,50 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestFrozenGraph extends JumpJGraphTTest {
+
+  @Test
+  public void testFreeze() {
+    Feature f1 = createFeature("A", 0, 0, 10, 0);
+    Feature f2 = createFeature("B", 10, 0, 20, 10);
+    Feature f3 = createFeature("C", 20, 10, 0, 0);
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(
+        Arrays.asList(f1, f2, f3), false
+    );
+    FrozenGraph<INode,FeatureAsEdge> frozen = FrozenGraph.freeze(graph);
+    Assert.isTrue(frozen.isDirected());
+    Assert.equals(3, frozen.vertexCount());
+    Assert.equals(3, frozen.edgeCount());
+    int a = frozen.indexOfVertex(new Node2D(new Coordinate(0, 0)));
+    int b = frozen.indexOfVertex(new Node2D(new Coordinate(10, 0)));
+    Assert.equals(1, frozen.outDegreeOf(a));
+    Assert.equals(2, frozen.degreeOf(a));
+    Assert.isTrue(frozen.containsEdge(a, b));
+    Assert.isTrue(!frozen.containsEdge(b, a));
+    Assert.equals(10.0, frozen.getEdgeWeight(new FeatureAsEdge(f1)));
+  }
+
+  @Test
+  public void testWeightUpdate() {
+    Feature f1 = createFeature("A", 0, 0, 10, 0);
+    Feature f2 = createFeature("B", 10, 0, 20, 0);
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(f1, f2));
+    FrozenGraphHolder<INode,FeatureAsEdge> holder = new FrozenGraphHolder<>(FrozenGraph.freeze(graph));
+    FrozenGraph<INode,FeatureAsEdge> before = holder.get();
+    holder.updateEdgeWeights(Collections.singletonMap(new FeatureAsEdge(f1), 5.0));
+    FrozenGraph<INode,FeatureAsEdge> after = holder.get();
+    Assert.equals(10.0, before.getEdgeWeight(new FeatureAsEdge(f1)));
+    Assert.equals(5.0, after.getEdgeWeight(new FeatureAsEdge(f1)));
+    Assert.equals(10.0, after.getEdgeWeight(new FeatureAsEdge(f2)));
+    Assert.isTrue(before.hasSameTopology(after));
+  }
+
+}
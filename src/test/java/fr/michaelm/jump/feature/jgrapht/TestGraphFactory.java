@@ -3,10 +3,16 @@ package fr.michaelm.jump.feature.jgrapht;
 import com.vividsolutions.jump.feature.Feature;
 import org.jgrapht.Graph;
 import org.jgrapht.alg.cycle.CycleDetector;
+import org.jgrapht.graph.WeightedPseudograph;
 import org.junit.Test;
 import org.locationtech.jts.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 public class TestGraphFactory extends JumpJGraphTTest {
 
@@ -58,4 +64,141 @@ public class TestGraphFactory extends JumpJGraphTTest {
     Assert.equals(3L, graph.vertexSet().stream().filter(n->graph.degreeOf(n)==2).count());
   }
 
+  @Test
+  public void testFeatureAsNodeKeyMode() {
+    Feature f1 = createFeature("A", 0, 0);
+    Feature f2 = createFeature("B", 1, 1);
+    Feature f3 = createFeature("C", 0, 0);
+    List<Feature> features = Arrays.asList(f1, f2, f3);
+    Assert.equals(2, GraphFactory.createGraph(features, 5.0).vertexSet().size());
+    Graph<FeatureAsNode, Long> graph = GraphFactory.createGraph(
+        features, 5.0, FeatureAsNode.KeyMode.IDENTITY
+    );
+    Assert.equals(3, graph.vertexSet().size());
+    Assert.equals(3, graph.edgeSet().size());
+    Assert.equals(3, GraphFactory.createGraph(
+        features, GraphFactory.Relation.INTERSECTS, FeatureAsNode.KeyMode.FEATURE_ID
+    ).vertexSet().size());
+    FeatureAsNode node = new FeatureAsNode(f1, FeatureAsNode.KeyMode.FEATURE_ID);
+    Assert.isTrue(node.equals(new FeatureAsNode(f1, FeatureAsNode.KeyMode.FEATURE_ID)));
+    Assert.isTrue(!node.equals(new FeatureAsNode(f3, FeatureAsNode.KeyMode.FEATURE_ID)));
+    Assert.isTrue(new FeatureAsNode(f1).equals(new FeatureAsNode(f3)));
+    Assert.equals(f1.getGeometry().getCoordinate(), node.getCoordinate());
+  }
+
+  @Test
+  public void testKNearestNeighbourGraph() {
+    Feature f1 = createFeature("A", 0, 0);
+    Feature f2 = createFeature("B", 1, 0);
+    Feature f3 = createFeature("C", 10, 0);
+    Feature f4 = createFeature("D", 12, 0);
+    Graph<FeatureAsNode, Long> graph1 = GraphFactory.createKNearestNeighbourGraph(
+        Arrays.asList(f1, f2, f3, f4), 1
+    );
+    Assert.equals(4, graph1.vertexSet().size());
+    Assert.equals(2, graph1.edgeSet().size());
+    Graph<FeatureAsNode, Long> graph2 = GraphFactory.createKNearestNeighbourGraph(
+        Arrays.asList(f1, f2, f3, f4), 2
+    );
+    Assert.equals(4, graph2.vertexSet().size());
+    Assert.equals(5, graph2.edgeSet().size());
+    Assert.equals(9.0, graph2.getEdgeWeight(graph2.getEdge(new FeatureAsNode(f2), new FeatureAsNode(f3))));
+  }
+
+  @Test
+  public void testKNearestNeighbourGraphWithDuplicates() {
+    Feature f1 = createFeature("A", 0, 0);
+    Feature f1bis = createFeature("A2", 0, 0);
+    Feature f2 = createFeature("B", 1, 0);
+    Feature f3 = createFeature("C", 10, 0);
+    Graph<FeatureAsNode, Long> graph = GraphFactory.createKNearestNeighbourGraph(
+        Arrays.asList(f1, f1bis, f2, f3), 1
+    );
+    Assert.equals(3, graph.vertexSet().size());
+    for (Long edge : graph.edgeSet()) {
+      Assert.isTrue(!graph.getEdgeSource(edge).equals(graph.getEdgeTarget(edge)));
+    }
+    // A is connected to B instead of its twin
+    Assert.isTrue(graph.containsEdge(new FeatureAsNode(f1), new FeatureAsNode(f2)));
+    Assert.equals(2, graph.edgeSet().size());
+  }
+
+  @Test
+  public void testDelaunayGraphs() {
+    Feature f1 = createFeature("A", 0, 0);
+    Feature f2 = createFeature("B", 2, 0);
+    Feature f3 = createFeature("C", 1, 1.5);
+    Feature f4 = createFeature("D", 1, -1.5);
+    Graph<FeatureAsNode, Long> delaunay = GraphFactory.createDelaunayGraph(
+        Arrays.asList(f1, f2, f3, f4)
+    );
+    Assert.equals(4, delaunay.vertexSet().size());
+    Assert.equals(5, delaunay.edgeSet().size());
+    Assert.isTrue(delaunay.containsEdge(new FeatureAsNode(f1), new FeatureAsNode(f2)));
+    Graph<FeatureAsNode, Long> gabriel = GraphFactory.createGabrielGraph(
+        Arrays.asList(f1, f2, f3, f4)
+    );
+    Assert.equals(5, gabriel.edgeSet().size());
+    Graph<FeatureAsNode, Long> rng = GraphFactory.createRelativeNeighbourhoodGraph(
+        Arrays.asList(f1, f2, f3, f4)
+    );
+    Assert.equals(4, rng.edgeSet().size());
+    Assert.isTrue(!rng.containsEdge(new FeatureAsNode(f1), new FeatureAsNode(f2)));
+  }
+
+  @Test
+  public void testMetrics() {
+    Feature f1 = createFeature("A", 0, 0, 10, 0);
+    Feature f2 = createFeature("B", 10, 0, 20, 10);
+    List<GraphOperationStats> stats = new ArrayList<>();
+    GraphMetricsListener listener = stats::add;
+    GraphMetrics.addListener(listener);
+    try {
+      GraphFactory.createUndirectedGraph(Arrays.asList(f1, f2), false);
+    } finally {
+      GraphMetrics.removeListener(listener);
+    }
+    Assert.isTrue(!GraphMetrics.isEnabled());
+    Assert.equals(1, stats.size());
+    Assert.equals("GraphFactory.createUndirectedGraph", stats.get(0).getOperation());
+    Assert.equals(2L, stats.get(0).getCount(GraphOperationStats.Counter.FEATURES));
+    Assert.equals(3L, stats.get(0).getCount(GraphOperationStats.Counter.NODES));
+    Assert.equals(2L, stats.get(0).getCount(GraphOperationStats.Counter.EDGES));
+  }
+
+  @Test
+  public void testAsyncGraph() throws Exception {
+    Feature f1 = createFeature("A", 0, 0, 10, 0);
+    Feature f2 = createFeature("B", 10, 0, 20, 10);
+    List<Long> progress = new ArrayList<>();
+    CompletableFuture<WeightedPseudograph<INode,FeatureAsEdge>> future =
+        GraphFactory.createUndirectedGraphAsync(Arrays.asList(f1, f2), false,
+            ForkJoinPool.commonPool(), new CancellationToken(), (done, total) -> progress.add(done));
+    Assert.equals(2, future.get().edgeSet().size());
+    Assert.equals(2L, progress.get(progress.size() - 1));
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    CompletableFuture<WeightedPseudograph<INode,FeatureAsEdge>> cancelled =
+        GraphFactory.createUndirectedGraphAsync(Arrays.asList(f1, f2), false,
+            Runnable::run, token, null);
+    Assert.isTrue(cancelled.isCancelled());
+  }
+
+  @Test
+  public void testCancelAsyncWithoutToken() {
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0 ; i < 2000 ; i++) features.add(createFeature("E" + i, i, 0, i + 1, 0));
+    List<Runnable> tasks = new ArrayList<>();
+    List<Long> progress = new ArrayList<>();
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    futures.add(GraphFactory.createUndirectedGraphAsync(features, false, tasks::add, null, (done, total) -> {
+      progress.add(done);
+      futures.get(0).cancel(false);
+    }));
+    tasks.get(0).run();
+    Assert.isTrue(futures.get(0).isCancelled());
+    // the build stopped at the first check following the cancellation (done = 1024)
+    Assert.equals(Collections.singletonList(0L), progress);
+  }
+
 }
@@ -0,0 +1,191 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import com.vividsolutions.jump.feature.FeatureCollection;
+import com.vividsolutions.jump.feature.FeatureDataset;
+import org.jgrapht.Graph;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+public class TestGraphUtil extends JumpJGraphTTest {
+
+  @Test
+  public void testStronglyConnectedComponents() {
+    Feature f1 = createFeature("AB", 0, 0, 10, 0);
+    Feature f2 = createFeature("BC", 10, 0, 10, 10);
+    Feature f3 = createFeature("CA", 10, 10, 0, 0);
+    Feature f4 = createFeature("CD", 10, 10, 20, 10);
+    Feature f5 = createFeature("EA", -10, 0, 0, 0);
+    Assert.isTrue(GraphUtil.isGraphStronglyConnected(Arrays.asList(f1, f2, f3), false));
+    Assert.isTrue(!GraphUtil.isGraphStronglyConnected(Arrays.asList(f1, f2, f3, f4, f5), false));
+    List<Set<INode>> sets = GraphUtil.createStronglyConnectedNodeSets(
+        Arrays.asList(f1, f2, f3, f4, f5), false
+    );
+    Assert.equals(3, sets.size());
+    Assert.isTrue(sets.stream().anyMatch(s -> s.size() == 3));
+    List<Feature> errors = GraphUtil.getSinkAndSourceComponents(
+        Arrays.asList(f1, f2, f3, f4, f5), false
+    );
+    Assert.equals(2, errors.size());
+    Assert.isTrue(errors.stream().anyMatch(f -> f.getAttribute("type").equals(GraphUtil.SINK)
+        && f.getGeometry().getCoordinate().equals2D(new Coordinate(20, 10))));
+    Assert.isTrue(errors.stream().anyMatch(f -> f.getAttribute("type").equals(GraphUtil.SOURCE)
+        && f.getGeometry().getCoordinate().equals2D(new Coordinate(-10, 0))));
+  }
+
+  @Test
+  public void testTiledAnalysis() {
+    List<Feature> features = new ArrayList<>();
+    // a 10 x 10 grid cut in two halves, plus an isolated edge
+    for (int i = 0 ; i < 10 ; i++) {
+      for (int j = 0 ; j < 10 ; j++) {
+        if (i < 9) features.add(createFeature("H" + i + "_" + j, i, j, i + 1, j));
+        if (j < 9 && j != 4) features.add(createFeature("V" + i + "_" + j, i, j, i, j + 1));
+      }
+    }
+    features.add(createFeature("X", 20, 20, 21, 21));
+    TiledGraphAnalysis analysis = TiledGraphAnalysis.analyze(features, 3, 3, false, 0, 1);
+    Assert.equals(9, analysis.getTileCount());
+    Assert.equals(102L, analysis.getNodeCount());
+    Assert.equals((long)features.size(), analysis.getEdgeCount());
+    Assert.isTrue(analysis.getBoundaryNodeCount() > 0);
+    Assert.equals(GraphUtil.createConnectedNodeSets(features, false, false).size(), analysis.getComponentCount());
+    Assert.equals(3, analysis.getComponentCount());
+    Assert.isTrue(!analysis.isConnected());
+    Assert.equals(50, analysis.getComponentSizes()[0]);
+    Assert.equals(2, analysis.getComponentSizes()[2]);
+    Assert.equals(2, analysis.getVertices().size());
+    Assert.equals(102L, analysis.getDegreeHistogram().values().stream().mapToLong(Long::longValue).sum());
+  }
+
+  @Test
+  public void testVertexCoordinates() {
+    List<Feature> features = Arrays.asList(
+        createFeature("AB", 0, 0, 10, 0),
+        createFeature("BC", 10, 0, 10, 10),
+        createFeature("BD", 10, 0, 20, 0)
+    );
+    CoordinateSequence sequence = GraphUtil.getVertexCoordinates(features, 1, 1, false, false);
+    Assert.equals(3, sequence.size());
+    Assert.equals(GraphUtil.getVertices(features, 1, false, false).size(), sequence.size());
+    Assert.equals(1, GraphUtil.getVertexCoordinates(features, 3, 3, false, false).size());
+    Assert.equals(new Coordinate(10, 0),
+        GraphUtil.getVertexCoordinates(features, 3, 3, false, false).getCoordinate(0));
+    // same vertices as getVertices
+    Set<Coordinate> expected = new HashSet<>();
+    for (Geometry vertex : GraphUtil.getVertices(features, 1, false, false)) {
+      expected.add(vertex.getCoordinate());
+    }
+    Set<Coordinate> actual = new HashSet<>();
+    for (int i = 0 ; i < sequence.size() ; i++) actual.add(sequence.getCoordinate(i));
+    Assert.equals(expected, actual);
+    Node2D node = new Node2D(new Coordinate(1, 2));
+    Assert.isTrue(node.getGeometry().equalsExact(new GeometryFactory().createPoint(new Coordinate(1, 2))));
+  }
+
+  @Test
+  public void testNodeStreams() {
+    List<Feature> features = Arrays.asList(
+        createFeature("AB", 0, 0, 10, 0),
+        createFeature("BC", 10, 0, 10, 10),
+        createFeature("BD", 10, 0, 20, 0),
+        createFeature("EF", 50, 50, 60, 50)
+    );
+    List<Set<INode>> sets = GraphUtil.streamConnectedNodeSets(features, false, false)
+        .collect(Collectors.toList());
+    Assert.equals(2, sets.size());
+    Assert.equals(6, sets.stream().mapToInt(Set::size).sum());
+    Assert.equals(1L, GraphUtil.streamConnectedNodeSets(features, false, false).limit(1).count());
+    Assert.equals(GraphUtil.getVertices(features, 1, false, false).size(),
+        (int)GraphUtil.streamVertices(features, 1, 1, false, false).count());
+
+    FeatureCollection target = new FeatureDataset(GraphUtil.createNodeSchema());
+    Assert.equals(6, GraphUtil.writeNodes(features, 0, Integer.MAX_VALUE, false, false, target));
+    Assert.equals(6, target.size());
+    for (Feature f : target.getFeatures()) {
+      Assert.isTrue(f.getSchema() == target.getFeatureSchema());
+      int size = f.getInteger(f.getSchema().getAttributeIndex(GraphUtil.SIZE));
+      Assert.isTrue(size == 4 || size == 2);
+    }
+    List<Feature> hubs = GraphUtil.streamNodes(features, 3, 3, false, false, target.getFeatureSchema())
+        .collect(Collectors.toList());
+    Assert.equals(1, hubs.size());
+    Assert.equals(new Coordinate(10, 0), hubs.get(0).getGeometry().getCoordinate());
+    Assert.equals(4, hubs.get(0).getAttribute(GraphUtil.SIZE));
+    Assert.equals(3, hubs.get(0).getAttribute(GraphUtil.DEGREE));
+
+    // an existing graph is traversed without being rebuilt
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createUndirectedGraph(features, false);
+    Assert.equals(2L, GraphUtil.streamConnectedNodeSets(graph).count());
+    FeatureCollection ends = new FeatureDataset(GraphUtil.createNodeSchema());
+    Assert.equals(5, GraphUtil.writeNodes(graph, 1, 1, ends));
+    Assert.equals(1L, GraphUtil.streamNodes(graph, 3, 3, ends.getFeatureSchema()).count());
+  }
+
+  @Test
+  public void testMetrics() {
+    List<Feature> features = Arrays.asList(
+        createFeature("AB", 0, 0, 10, 0),
+        createFeature("BC", 10, 0, 20, 10)
+    );
+    List<GraphOperationStats> stats = new ArrayList<>();
+    GraphMetricsListener listener = stats::add;
+    GraphMetrics.addListener(listener);
+    try {
+      GraphUtil.isGraphConnected(features, false, false);
+    } finally {
+      GraphMetrics.removeListener(listener);
+    }
+    // the graph build is reported once, before the analysis
+    Assert.equals(2, stats.size());
+    Assert.equals("GraphFactory.createUndirectedGraph", stats.get(0).getOperation());
+    Assert.equals("GraphUtil.isGraphConnected", stats.get(1).getOperation());
+    Assert.equals(2L, stats.get(1).getCount(GraphOperationStats.Counter.FEATURES));
+    Assert.equals(3L, stats.get(1).getCount(GraphOperationStats.Counter.NODES));
+  }
+
+  @Test
+  public void testCancelDuringAnalysis() {
+    List<Feature> features = Arrays.asList(
+        createFeature("AB", 0, 0, 10, 0),
+        createFeature("BC", 10, 0, 20, 10)
+    );
+    List<Long> totals = new ArrayList<>();
+    GraphUtil.getVertices(features, 0, 10, false, false, null, (done, total) -> totals.add(total));
+    // progress is reported in features, then in nodes
+    Assert.equals(2L, totals.get(0));
+    Assert.equals(3L, totals.get(totals.size() - 1));
+
+    // the token is cancelled once the graph is built
+    CancellationToken token = new CancellationToken();
+    ProgressListener cancelAfterBuild = (done, total) -> {
+      if (done == total) token.cancel();
+    };
+    try {
+      GraphUtil.getVertices(features, 0, 10, false, false, token, cancelAfterBuild);
+      Assert.shouldNeverReachHere();
+    } catch (CancellationException e) {
+      // expected
+    }
+    CancellationToken token2 = new CancellationToken();
+    CompletableFuture<List<Feature>> future = GraphUtil.getSinkAndSourceComponentsAsync(
+        features, false, Runnable::run, token2, (done, total) -> {
+          if (done == total) token2.cancel();
+        });
+    Assert.isTrue(future.isCancelled());
+  }
+
+}
@@ -0,0 +1,46 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestMapMatcher extends JumpJGraphTTest {
+
+  private final Feature ab = createFeature("AB", 0, 0, 10, 0);
+  private final Feature bc = createFeature("BC", 10, 0, 20, 0);
+  private final Feature cd = createFeature("CD", 20, 0, 20, 10);
+  private final Feature be = createFeature("BE", 10, 0, 10, 10);
+  private final Feature ef = createFeature("EF", 10, 10, 20, 10);
+  private final List<Feature> network = Arrays.asList(ab, bc, cd, be, ef);
+
+  private final List<Coordinate> trace = Arrays.asList(
+      new Coordinate(2, 1), new Coordinate(8, 1), new Coordinate(13, 1),
+      new Coordinate(19, 1), new Coordinate(21, 5), new Coordinate(20.5, 9)
+  );
+
+  private static List<Feature> features(List<FeatureAsEdge> edges) {
+    return edges.stream().map(FeatureAsEdge::getFeature).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testUndirectedMatch() {
+    MapMatcher matcher = new MapMatcher(GraphFactory.createGraph(network), 5, 2, 5);
+    Assert.equals(Arrays.asList(ab, bc, cd), features(matcher.match(trace)));
+  }
+
+  @Test
+  public void testDirectedMatch() {
+    MapMatcher matcher = new MapMatcher(GraphFactory.createDirectedGraph(network, false), 5, 2, 5);
+    Assert.equals(Arrays.asList(ab, bc, cd), features(matcher.match(trace)));
+    List<List<FeatureAsEdge>> all = matcher.matchAll(Arrays.asList(trace, trace.subList(0, 3)));
+    Assert.equals(2, all.size());
+    Assert.equals(Arrays.asList(ab, bc, cd), features(all.get(0)));
+    Assert.equals(Arrays.asList(ab, bc), features(all.get(1)));
+  }
+
+}
@@ -0,0 +1,101 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+public class TestShortestPathService extends JumpJGraphTTest {
+
+  private final Feature ab = createFeature("AB", 0, 0, 10, 0);
+  private final Feature bc = createFeature("BC", 10, 0, 20, 0);
+  private final INode a = new Node2D(new Coordinate(0, 0));
+  private final INode b = new Node2D(new Coordinate(10, 0));
+  private final INode c = new Node2D(new Coordinate(20, 0));
+
+  @Test
+  public void testShortestPathTree() {
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createDirectedGraph(Arrays.asList(ab, bc), false);
+    ShortestPathTree<INode,FeatureAsEdge> tree = ShortestPathTree.compute(FrozenGraph.freeze(graph), a);
+    Assert.equals(20.0, tree.getDistance(c));
+    Assert.equals(Arrays.asList(new FeatureAsEdge(ab), new FeatureAsEdge(bc)), tree.getPath(c));
+    Assert.equals(Collections.emptyList(), tree.getPath(a));
+    ShortestPathTree<INode,FeatureAsEdge> reverse = ShortestPathTree.compute(FrozenGraph.freeze(graph), c);
+    Assert.isTrue(!reverse.isReachable(a));
+    Assert.isTrue(reverse.getPath(a) == null);
+  }
+
+  @Test
+  public void testCacheAndInvalidation() throws Exception {
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(ab, bc));
+    FrozenGraphHolder<INode,FeatureAsEdge> holder = new FrozenGraphHolder<>(FrozenGraph.freeze(graph));
+    try (ShortestPathService<INode,FeatureAsEdge> service = new ShortestPathService<>(holder, 1 << 20, 10)) {
+      Assert.equals(20.0, service.getDistance(a, c));
+      Assert.equals(10.0, service.getDistance(a, b));
+      Assert.equals(1L, service.getHitCount());
+      Assert.equals(1L, service.getMissCount());
+      Assert.equals(0.5, service.getHitRate());
+      holder.updateEdgeWeights(Collections.singletonMap(new FeatureAsEdge(ab), 1.0));
+      Assert.equals(11.0, service.getDistance(a, c));
+      Assert.equals(2L, service.getMissCount());
+      Assert.equals(1L, service.getInvalidationCount());
+      List<CompletableFuture<Double>> queries = Arrays.asList(
+          service.queryDistance(c, a), service.queryDistance(c, b), service.queryDistance(c, c)
+      );
+      CompletableFuture.allOf(queries.toArray(new CompletableFuture[0])).get();
+      Assert.equals(11.0, queries.get(0).get());
+      Assert.equals(0.0, queries.get(2).get());
+      Assert.equals(1L, service.getBatchCount());
+      Assert.equals(3L, service.getBatchedQueryCount());
+      Assert.equals(2, service.getCacheSize());
+    }
+  }
+
+  @Test
+  public void testEviction() {
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(ab, bc));
+    FrozenGraphHolder<INode,FeatureAsEdge> holder = new FrozenGraphHolder<>(FrozenGraph.freeze(graph));
+    ShortestPathTree<INode,FeatureAsEdge> tree = ShortestPathTree.compute(holder.get(), a);
+    try (ShortestPathService<INode,FeatureAsEdge> service =
+             new ShortestPathService<>(holder, tree.getEstimatedBytes(), 0)) {
+      service.getTree(a);
+      service.getTree(b);
+      Assert.equals(1, service.getCacheSize());
+      Assert.equals(1L, service.getEvictionCount());
+      Assert.isTrue(service.getCachedBytes() <= tree.getEstimatedBytes());
+    }
+  }
+
+  @Test
+  public void testQueryAfterClose() throws Exception {
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(ab, bc));
+    FrozenGraphHolder<INode,FeatureAsEdge> holder = new FrozenGraphHolder<>(FrozenGraph.freeze(graph));
+    ShortestPathService<INode,FeatureAsEdge> service = new ShortestPathService<>(holder, 1 << 20, 60000);
+    CompletableFuture<Double> queued = service.queryDistance(a, c);
+    service.close();
+    assertRejected(queued);
+    assertRejected(service.queryDistance(a, c));
+    assertRejected(service.queryPath(a, b));
+    // synchronous queries still work
+    Assert.equals(20.0, service.getDistance(a, c));
+  }
+
+  private static void assertRejected(CompletableFuture<?> future) throws InterruptedException {
+    Assert.isTrue(future.isCompletedExceptionally());
+    try {
+      future.get();
+      Assert.shouldNeverReachHere();
+    } catch (ExecutionException e) {
+      Assert.isTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.spanning.KruskalMinimumSpanningTree;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TestSpanningForest extends JumpJGraphTTest {
+
+  @Test
+  public void testMinimumSpanningForest() {
+    // jittered grid with two components
+    Random random = new Random(7);
+    double[][] x = new double[9][9];
+    double[][] y = new double[9][9];
+    for (int i = 0 ; i < 9 ; i++) {
+      for (int j = 0 ; j < 9 ; j++) {
+        x[i][j] = i + 0.4 * random.nextDouble();
+        y[i][j] = j + 0.4 * random.nextDouble();
+      }
+    }
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0 ; i < 9 ; i++) {
+      for (int j = 0 ; j < 9 ; j++) {
+        if (i < 8) features.add(createFeature("H", x[i][j], y[i][j], x[i+1][j], y[i+1][j]));
+        if (j < 8) features.add(createFeature("V", x[i][j], y[i][j], x[i][j+1], y[i][j+1]));
+      }
+    }
+    features.add(createFeature("X", 100, 100, 110, 100));
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(features);
+    List<FeatureAsEdge> forest = SpanningForest.minimumSpanningForest(graph);
+    double weight = forest.stream().mapToDouble(graph::getEdgeWeight).sum();
+    double expected = new KruskalMinimumSpanningTree<>(graph).getSpanningTree().getWeight();
+    Assert.isTrue(Math.abs(expected - weight) < 1e-9);
+    Assert.equals(graph.vertexSet().size() - 2, forest.size());
+  }
+
+  @Test
+  public void testMinimumSpanningForestArrays() {
+    // a square with a diagonal, plus an isolated vertex
+    int[] source = {0, 1, 2, 3, 0};
+    int[] target = {1, 2, 3, 0, 2};
+    double[] weight = {1, 2, 1, 3, 1.5};
+    int[] forest = SpanningForest.minimumSpanningForest(5, source, target, weight);
+    Arrays.sort(forest);
+    Assert.isTrue(Arrays.equals(new int[]{0, 2, 4}, forest));
+  }
+
+  @Test
+  public void testMinimumSpanningForestOfFeatures() {
+    Random random = new Random(11);
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0 ; i < 200 ; i++) {
+      features.add(createFeature("P" + i, 20 * random.nextDouble(), 20 * random.nextDouble()));
+    }
+    Graph<FeatureAsNode,Long> graph = GraphFactory.createGraph(features, 2.0);
+    double expected = new KruskalMinimumSpanningTree<>(graph).getSpanningTree().getWeight();
+    List<Feature[]> forest = SpanningForest.minimumSpanningForest(features, 2.0);
+    double weight = 0;
+    for (Feature[] pair : forest) {
+      Assert.isTrue(graph.containsEdge(new FeatureAsNode(pair[0]), new FeatureAsNode(pair[1])));
+      weight += pair[0].getGeometry().distance(pair[1].getGeometry());
+    }
+    Assert.isTrue(Math.abs(expected - weight) < 1e-9);
+    Assert.equals(new KruskalMinimumSpanningTree<>(graph).getSpanningTree().getEdges().size(), forest.size());
+  }
+
+  @Test
+  public void testSteinerTree() {
+    // a star with dangling edges
+    Feature ao = createFeature("AO", 0, 10, 0, 0);
+    Feature bo = createFeature("BO", 10, 0, 0, 0);
+    Feature co = createFeature("CO", 0, -10, 0, 0);
+    Feature cd = createFeature("CD", 0, -10, -10, -10);
+    Feature oe = createFeature("OE", 0, 0, -10, 0);
+    Graph<INode,FeatureAsEdge> graph = GraphFactory.createGraph(Arrays.asList(ao, bo, co, cd, oe));
+    List<FeatureAsEdge> tree = SpanningForest.steinerTree(graph, Arrays.asList(
+        new Node2D(new Coordinate(0, 10)),
+        new Node2D(new Coordinate(10, 0)),
+        new Node2D(new Coordinate(0, -10))
+    ));
+    Assert.equals(3, tree.size());
+    Assert.isTrue(tree.contains(new FeatureAsEdge(ao)));
+    Assert.isTrue(tree.contains(new FeatureAsEdge(bo)));
+    Assert.isTrue(tree.contains(new FeatureAsEdge(co)));
+  }
+
+}
@@ -0,0 +1,92 @@
+package fr.michaelm.jump.feature.jgrapht;
+
+import com.vividsolutions.jump.feature.Feature;
+import org.junit.Test;
+import org.locationtech.jts.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestTopologyDiff extends JumpJGraphTTest {
+
+  @Test
+  public void testDiff() {
+    List<Feature> oldVersion = Arrays.asList(
+        createFeature("A", 0, 0, 10, 0),
+        createFeature("B", 10, 0, 20, 0),
+        createFeature("C", 30, 0, 40, 0),
+        createFeature("D", 50, 0, 60, 0),
+        createFeature("F", 70, 0, 80, 0),
+        createFeature("G", 80, 0, 90, 0),
+        createFeature("H", 90, 0, 100, 0)
+    );
+    Feature b = createFeature("B", 10, 0, 20, 5);
+    Feature e = createFeature("E", 20, 5, 30, 0);
+    List<Feature> newVersion = Arrays.asList(
+        createFeature("A", 0, 0, 10, 0),
+        b,
+        createFeature("C", 30, 0, 40, 0),
+        e,
+        createFeature("F", 70, 0, 80, 0),
+        createFeature("H", 90, 0, 100, 0)
+    );
+    TopologyDiff diff = TopologyDiff.compute(oldVersion, newVersion, false, NAME);
+    Assert.isTrue(!diff.isEmpty());
+    Assert.equals(Collections.singletonList(e), diff.getAddedEdges());
+    Assert.equals(2, diff.getRemovedEdges().size());
+    Assert.equals(Collections.singletonList(b), diff.getChangedEndpoints());
+    Assert.equals(Collections.singletonList(b), diff.getChangedWeights());
+    Assert.equals(1, diff.getMergedComponents().size());
+    Assert.equals(2, diff.getMergedComponents().get(0).size());
+    Assert.equals(1, diff.getSplitComponents().size());
+    Assert.equals(2, diff.getNewDangles().size());
+    Assert.isTrue(TopologyDiff.compute(oldVersion, oldVersion, false).isEmpty());
+  }
+
+  @Test
+  public void testDiffByGeometry() {
+    List<Feature> oldVersion = Arrays.asList(
+        createFeature("A", 0, 0, 10, 0),
+        createFeature("B", 10, 0, 20, 0)
+    );
+    // same network loaded again (new feature IDs), B being digitized backwards
+    List<Feature> sameNetwork = Arrays.asList(
+        createFeature("A", 0, 0, 10, 0),
+        createFeature("B", 20, 0, 10, 0)
+    );
+    Assert.isTrue(TopologyDiff.compute(oldVersion, sameNetwork, false).isEmpty());
+    Feature b = createFeature("B", 10, 0, 20, 5);
+    TopologyDiff diff = TopologyDiff.compute(oldVersion,
+        Arrays.asList(createFeature("A", 0, 0, 10, 0), b), false);
+    Assert.equals(Collections.singletonList(b), diff.getAddedEdges());
+    Assert.equals(1, diff.getRemovedEdges().size());
+    Assert.isTrue(diff.getChangedWeights().isEmpty());
+    try {
+      TopologyDiff.compute(oldVersion, sameNetwork, false, null);
+      Assert.shouldNeverReachHere();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDuplicateGeometries() {
+    Feature a1 = createFeature("A", 0, 0, 10, 0);
+    Feature a2 = createFeature("A", 0, 0, 10, 0);
+    Feature b = createFeature("B", 10, 0, 20, 0);
+    List<Feature> duplicated = Arrays.asList(a1, a2, b);
+    Assert.isTrue(TopologyDiff.compute(duplicated,
+        Arrays.asList(createFeature("A", 10, 0, 0, 0), createFeature("A", 0, 0, 10, 0), b), false).isEmpty());
+    // the second copy of A is removed
+    TopologyDiff diff = TopologyDiff.compute(duplicated, Arrays.asList(a1, b), false);
+    Assert.equals(Collections.singletonList(a2), diff.getRemovedEdges());
+    Assert.isTrue(diff.getAddedEdges().isEmpty());
+    // a copy of B is added
+    Feature b2 = createFeature("B", 20, 0, 10, 0);
+    diff = TopologyDiff.compute(duplicated, Arrays.asList(a1, a2, b, b2), false);
+    Assert.equals(Collections.singletonList(b2), diff.getAddedEdges());
+    Assert.isTrue(diff.getRemovedEdges().isEmpty());
+  }
+
+}